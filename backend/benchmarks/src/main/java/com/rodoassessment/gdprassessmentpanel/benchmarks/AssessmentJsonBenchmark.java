@@ -0,0 +1,44 @@
+package com.rodoassessment.gdprassessmentpanel.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Jackson (de)serialization of the full assessment tree, with an ObjectMapper configured like the one
+// Spring Boot gives the MVC message converters
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssessmentJsonBenchmark {
+
+    @Param({"8x5x4", "12x8x10"})
+    public String shape;
+
+    private ObjectMapper objectMapper;
+    private AssessmentDto assessment;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        assessment = BenchmarkData.assessment(shape);
+        json = objectMapper.writeValueAsBytes(assessment);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(assessment);
+    }
+
+    @Benchmark
+    public AssessmentDto deserialize() throws IOException {
+        return objectMapper.readValue(json, AssessmentDto.class);
+    }
+}
@@ -0,0 +1,47 @@
+package com.rodoassessment.gdprassessmentpanel.benchmarks;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentReadService;
+import com.rodoassessment.gdprassessmentpanel.service.CatalogSnapshot;
+import com.rodoassessment.gdprassessmentpanel.service.ValueEdit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Building the assessment tree from the catalog snapshot and the answer maps (the part of
+// GET /api/assessments/{id} that runs after the two set-based queries)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssessmentTreeBenchmark {
+
+    @Param({"8x5x4", "12x8x10"})
+    public String shape;
+
+    private CatalogSnapshot catalog;
+    private Map<Long, ValueEdit> responses;
+    private Map<Long, ValueEdit> areaScores;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkData.catalog(shape);
+        responses = BenchmarkData.responses(catalog);
+        areaScores = BenchmarkData.areaScores(catalog);
+    }
+
+    @Benchmark
+    public List<AssessmentDto.ChapterDto> buildAnswered() {
+        return AssessmentReadService.buildChapters(catalog, responses, areaScores);
+    }
+
+    @Benchmark
+    public List<AssessmentDto.ChapterDto> buildTemplate() {
+        return AssessmentReadService.buildChapters(catalog, Collections.emptyMap(), Collections.emptyMap());
+    }
+}
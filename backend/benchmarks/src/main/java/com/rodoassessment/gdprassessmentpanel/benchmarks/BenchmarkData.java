@@ -0,0 +1,111 @@
+package com.rodoassessment.gdprassessmentpanel.benchmarks;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.model.Role;
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentReadService;
+import com.rodoassessment.gdprassessmentpanel.service.CatalogSnapshot;
+import com.rodoassessment.gdprassessmentpanel.service.ValueEdit;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Synthetic but realistically sized fixtures. A catalog shape is "chapters x areas per chapter x requirements
+// per area"; 8x5x4 is roughly the catalog seeded by database/init.sql, larger shapes model custom catalogs.
+public final class BenchmarkData {
+
+    private static final String[] RESPONSE_VALUES = {"TAK", "NIE", "W REALIZACJI", "ND"};
+    private static final String[] AREA_SCORES = {"POZYTYWNA", "ZASTRZEŻENIA", "NEGATYWNA", "W REALIZACJI", "NIE DOTYCZY"};
+
+    private BenchmarkData() {
+    }
+
+    public static CatalogSnapshot catalog(String shape) {
+        String[] parts = shape.split("x");
+        int chapterCount = Integer.parseInt(parts[0]);
+        int areasPerChapter = Integer.parseInt(parts[1]);
+        int requirementsPerArea = Integer.parseInt(parts[2]);
+
+        List<CatalogSnapshot.ChapterNode> chapters = new ArrayList<>();
+        Map<Long, CatalogSnapshot.ChapterNode> chaptersById = new HashMap<>();
+        Map<Long, CatalogSnapshot.AreaNode> areasById = new HashMap<>();
+        Map<Long, CatalogSnapshot.RequirementNode> requirementsById = new HashMap<>();
+        long areaId = 0;
+        long requirementId = 0;
+
+        for (int c = 1; c <= chapterCount; c++) {
+            List<CatalogSnapshot.AreaNode> areas = new ArrayList<>();
+            for (int a = 1; a <= areasPerChapter; a++) {
+                areaId++;
+                List<CatalogSnapshot.RequirementNode> requirements = new ArrayList<>();
+                for (int r = 1; r <= requirementsPerArea; r++) {
+                    requirementId++;
+                    CatalogSnapshot.RequirementNode requirement = new CatalogSnapshot.RequirementNode(requirementId, areaId,
+                            "Czy administrator danych zapewnia zgodność przetwarzania z wymaganiem " + requirementId
+                                    + " określonym w art. " + (5 + r) + " RODO oraz w przyjętej polityce ochrony danych?", r);
+                    requirements.add(requirement);
+                    requirementsById.put(requirementId, requirement);
+                }
+                CatalogSnapshot.AreaNode area = new CatalogSnapshot.AreaNode(areaId, (long) c,
+                        "Obszar " + c + "." + a + " przetwarzania danych osobowych",
+                        "Opis obszaru " + c + "." + a + " obejmujący zakres oceny zgodności z RODO", a,
+                        1.0 + (a % 3) * 0.25, List.copyOf(requirements));
+                areas.add(area);
+                areasById.put(areaId, area);
+            }
+            CatalogSnapshot.ChapterNode chapter = new CatalogSnapshot.ChapterNode((long) c, "Rozdział " + c,
+                    "Opis rozdziału " + c + " formularza oceny RODO", c, List.copyOf(areas));
+            chapters.add(chapter);
+            chaptersById.put((long) c, chapter);
+        }
+
+        return new CatalogSnapshot(1, "benchmark-" + shape, Instant.EPOCH, List.copyOf(chapters),
+                Map.copyOf(chaptersById), Map.copyOf(areasById), Map.copyOf(requirementsById));
+    }
+
+    // Answers for about three quarters of the requirements, a comment on every fourth one
+    public static Map<Long, ValueEdit> responses(CatalogSnapshot catalog) {
+        Random random = new Random(42);
+        Map<Long, ValueEdit> responses = new HashMap<>();
+        for (Long id : catalog.getRequirementsById().keySet()) {
+            if (random.nextInt(4) != 0) {
+                responses.put(id, new ValueEdit(RESPONSE_VALUES[random.nextInt(RESPONSE_VALUES.length)],
+                        random.nextInt(4) == 0 ? "Uwagi audytora do wymagania " + id : null));
+            }
+        }
+        return responses;
+    }
+
+    public static Map<Long, ValueEdit> areaScores(CatalogSnapshot catalog) {
+        Random random = new Random(7);
+        Map<Long, ValueEdit> scores = new HashMap<>();
+        for (Long id : catalog.getAreasById().keySet()) {
+            scores.put(id, new ValueEdit(AREA_SCORES[random.nextInt(AREA_SCORES.length)], "Ocena obszaru " + id));
+        }
+        return scores;
+    }
+
+    public static AssessmentDto assessment(String shape) {
+        CatalogSnapshot catalog = catalog(shape);
+        AssessmentDto assessment = new AssessmentDto();
+        assessment.setId(1L);
+        assessment.setName("Ocena RODO - benchmark " + shape);
+        assessment.setDescription("Ocena wygenerowana na potrzeby benchmarków");
+        assessment.setStatus("W TRAKCIE");
+        assessment.setCreatedAt(LocalDateTime.of(2025, 1, 15, 9, 30));
+        assessment.setUpdatedAt(LocalDateTime.of(2025, 3, 1, 14, 5));
+        assessment.setChapters(AssessmentReadService.buildChapters(catalog, responses(catalog), areaScores(catalog)));
+        return assessment;
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("audytor");
+        user.setEmail("audytor@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv1234567890ABCDEFGHIJKLMNOPQRSTU");
+        user.setRoles(new HashSet<>(List.of(new Role(1L, "ROLE_USER", null), new Role(2L, "ROLE_ADMIN", null))));
+        return user;
+    }
+}
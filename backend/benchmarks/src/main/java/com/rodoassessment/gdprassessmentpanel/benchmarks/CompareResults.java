@@ -0,0 +1,68 @@
+package com.rodoassessment.gdprassessmentpanel.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares two JMH JSON result files (e.g. from the previous and the current build):
+//   java -cp target/benchmarks.jar com.rodoassessment.gdprassessmentpanel.benchmarks.CompareResults old.json new.json [threshold%]
+// Prints one line per benchmark and parameter set and exits with 1 if any score got worse by more than
+// the threshold (default 10%), taking the direction of the benchmark mode into account.
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        boolean regression = false;
+        System.out.printf("%-60s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-60s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            double change = previous == 0 ? 0 : (score - previous) / previous * 100;
+            // Throughput: higher is better; average / sample / single shot time: lower is better
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            boolean worse = higherIsBetter ? change < -threshold : change > threshold;
+            regression |= worse;
+            System.out.printf("%-60s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), previous, score, change, unit,
+                    worse ? "  REGRESSION" : "");
+        }
+        System.exit(regression ? 1 : 0);
+    }
+
+    // Keyed by benchmark name, mode and parameters
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            // Class and method only; the package is the same for all benchmarks
+            String benchmark = result.path("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            StringBuilder key = new StringBuilder(name).append(" [").append(result.path("mode").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.append(']').toString(), result);
+        }
+        return results;
+    }
+}
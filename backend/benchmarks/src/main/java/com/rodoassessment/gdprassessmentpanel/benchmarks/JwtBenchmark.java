@@ -0,0 +1,65 @@
+package com.rodoassessment.gdprassessmentpanel.benchmarks;
+
+import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// Token issue at sign-in and the per-request work of AuthTokenFilter
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // Default of app.jwt.secret
+    private static final String SECRET =
+            "gdprAssessmentSecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtils = new JwtUtils();
+        set("jwtSecret", SECRET);
+        set("jwtExpirationMs", 86400000);
+        jwtUtils.init();
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(BenchmarkData.user());
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    // What AuthTokenFilter does per request: one parse, principal built from the claims
+    @Benchmark
+    public UserDetailsImpl parseToPrincipal() {
+        Claims claims = jwtUtils.parseJwtToken(token);
+        return jwtUtils.getUserDetailsFromClaims(claims);
+    }
+
+    // Values normally injected by Spring from app.jwt.*
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtUtils.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtils, value);
+    }
+}
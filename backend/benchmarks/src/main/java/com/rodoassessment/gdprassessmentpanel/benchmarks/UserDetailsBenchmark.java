@@ -0,0 +1,28 @@
+package com.rodoassessment.gdprassessmentpanel.benchmarks;
+
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDetailsBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user();
+    }
+
+    @Benchmark
+    public UserDetailsImpl build() {
+        return UserDetailsImpl.build(user);
+    }
+}
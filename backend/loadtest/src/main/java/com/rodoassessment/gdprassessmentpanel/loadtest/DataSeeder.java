@@ -0,0 +1,79 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Generates load test users and assessments with set-based SQL on top of the catalog from init.sql:
+// about 70% of the requirements answered and half of the areas scored, with a comment here and there.
+// All users share one password, so it is hashed once.
+public class DataSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+
+    public static final String USERNAME_PREFIX = "lt-user-";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Returns the ids of the seeded assessments per username
+    public Map<String, List<Long>> seed(LoadTestConfig config, String passwordHash) {
+        long started = System.nanoTime();
+
+        // setseed() only applies to the session, so the whole seed runs on one connection
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, List<Long>>>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            session.queryForList("SELECT setseed(?)", Double.valueOf(1.0 / (Math.abs(config.getSeed() % 1000) + 2)));
+
+            session.update("INSERT INTO users (username, email, password, enabled, created_at, updated_at) " +
+                    "SELECT ? || g, ? || g || '@loadtest.local', ?, true, now(), now() FROM generate_series(1, ?) g",
+                    USERNAME_PREFIX, USERNAME_PREFIX, passwordHash, config.getUsers());
+            session.update("INSERT INTO user_roles (user_id, role_id) " +
+                    "SELECT u.id, r.id FROM users u JOIN roles r ON r.name = 'ROLE_USER' WHERE u.username LIKE ? || '%'",
+                    USERNAME_PREFIX);
+
+            session.update("INSERT INTO assessments (name, description, status, user_id, created_at, updated_at) " +
+                    "SELECT 'Ocena ' || s.username || ' #' || s.n, 'Ocena wygenerowana do testu obciążeniowego', " +
+                    "(ARRAY['DRAFT', 'W TRAKCIE', 'ZAKOŃCZONA'])[1 + floor(random() * 3)::int], s.id, s.created, " +
+                    "s.created + (now() - s.created) * random() " +
+                    "FROM (SELECT u.id, u.username, n, now() - random() * interval '365 days' AS created " +
+                    "      FROM users u CROSS JOIN generate_series(1, ?) n WHERE u.username LIKE ? || '%') s",
+                    config.getAssessmentsPerUser(), USERNAME_PREFIX);
+
+            // Random non-blank ResponseValue and AreaScoreValue codes
+            int responses = session.update("INSERT INTO responses (assessment_id, requirement_id, value, comment, created_at, updated_at) " +
+                    "SELECT a.id, r.id, (1 + floor(random() * 4))::smallint, " +
+                    "CASE WHEN random() < 0.2 THEN 'Uwagi do wymagania ' || r.id END, a.created_at, a.updated_at " +
+                    "FROM assessments a JOIN users u ON u.id = a.user_id CROSS JOIN requirements r " +
+                    "WHERE u.username LIKE ? || '%' AND random() < 0.7", USERNAME_PREFIX);
+            int areaScores = session.update("INSERT INTO area_scores (assessment_id, area_id, score, comment, created_at, updated_at) " +
+                    "SELECT a.id, ar.id, (1 + floor(random() * 5))::smallint, " +
+                    "NULL, a.created_at, a.updated_at " +
+                    "FROM assessments a JOIN users u ON u.id = a.user_id CROSS JOIN areas ar " +
+                    "WHERE u.username LIKE ? || '%' AND random() < 0.5", USERNAME_PREFIX);
+
+            session.execute("ANALYZE");
+
+            Map<String, List<Long>> assessments = new LinkedHashMap<>();
+            session.query("SELECT u.username, a.id FROM assessments a JOIN users u ON u.id = a.user_id " +
+                    "WHERE u.username LIKE ? || '%' ORDER BY u.id, a.id", (RowCallbackHandler) rs ->
+                    assessments.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(rs.getLong(2)), USERNAME_PREFIX);
+
+            logger.info("Seeded {} users, {} assessments, {} responses and {} area scores in {} ms",
+                    config.getUsers(), config.getUsers() * config.getAssessmentsPerUser(), responses, areaScores,
+                    (System.nanoTime() - started) / 1_000_000);
+            return assessments;
+        });
+    }
+}
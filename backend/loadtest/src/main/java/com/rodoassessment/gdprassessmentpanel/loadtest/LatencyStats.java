@@ -0,0 +1,119 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Value;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms (microseconds) and error counts per endpoint. reset() starts a new measurement
+// window, which is how warmup requests are left out of the report.
+public class LatencyStats {
+
+    // Up to 60 s with 3 significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window());
+
+    public void record(String endpoint, long elapsedNanos, boolean error) {
+        EndpointStats stats = window.get().endpoints.computeIfAbsent(endpoint, k -> new EndpointStats());
+        stats.histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, elapsedNanos / 1_000)));
+        if (error) {
+            stats.errors.increment();
+        }
+    }
+
+    public void reset() {
+        window.set(new Window());
+    }
+
+    public Report report() {
+        Window current = window.get();
+        double seconds = Math.max(1, System.nanoTime() - current.startedNanos) / 1e9;
+
+        Map<String, Row> rows = new TreeMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, EndpointStats> entry : current.endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            long errors = entry.getValue().errors.sum();
+            rows.put(entry.getKey(), Row.of(histogram, errors, seconds));
+            total.add(histogram);
+            totalErrors += errors;
+        }
+        return new Report(seconds, rows, Row.of(total, totalErrors, seconds));
+    }
+
+    private static class Window {
+        final long startedNanos = System.nanoTime();
+        final ConcurrentHashMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    }
+
+    private static class EndpointStats {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    @Value
+    public static class Row {
+        long count;
+        long errors;
+        double requestsPerSecond;
+        double p50Ms;
+        double p95Ms;
+        double p99Ms;
+        double maxMs;
+
+        static Row of(Histogram histogram, long errors, double seconds) {
+            return new Row(histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    @Value
+    public static class Report {
+        double seconds;
+        Map<String, Row> endpoints;
+        Row total;
+
+        public void print(PrintStream out) {
+            String format = "%-40s %9s %7s %9s %9s %9s %9s %9s%n";
+            out.printf(format, "Endpoint", "Requests", "Errors", "RPS", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            endpoints.forEach((endpoint, row) -> print(out, endpoint, row));
+            print(out, "TOTAL", total);
+            out.printf("Measured %.1f s%n", seconds);
+        }
+
+        private static void print(PrintStream out, String name, Row row) {
+            out.printf("%-40s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, row.getCount(), row.getErrors(),
+                    row.getRequestsPerSecond(), row.getP50Ms(), row.getP95Ms(), row.getP99Ms(), row.getMaxMs());
+        }
+
+        public void write(Path path, LoadTestConfig config, ObjectMapper objectMapper) throws IOException {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("users", config.getUsers());
+            root.put("assessmentsPerUser", config.getAssessmentsPerUser());
+            root.put("virtualUsers", config.getVirtualUsers());
+            root.put("seconds", seconds);
+            ArrayNode rows = root.putArray("endpoints");
+            endpoints.forEach((endpoint, row) -> rows.addObject().put("endpoint", endpoint).setAll(objectMapper.<ObjectNode>valueToTree(row)));
+            root.set("total", objectMapper.valueToTree(total));
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), root);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.GdprAssessmentPanelApplication;
+import com.rodoassessment.gdprassessmentpanel.service.DashboardAggregateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end load test: starts an embedded PostgreSQL with database/init.sql, runs the application
+// against it on a random port, seeds users and assessments and drives the REST API with concurrent
+// virtual users. Prints per-endpoint throughput and latency percentiles and writes them as JSON.
+public class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final String PASSWORD = "loadtest1";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        String initSql = Files.readString(config.getInitSql());
+
+        List<EmbeddedPostgres> replicas = new ArrayList<>();
+        // Replicas follow the primary through logical replication, which needs wal_level=logical
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("wal_level", config.getReplicas() > 0 ? "logical" : "replica")
+                .start()) {
+            execute(postgres, initSql);
+
+            List<String> applicationArgs = new ArrayList<>(List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--server.port=0",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.rodoassessment=WARN",
+                    "--logging.level.com.rodoassessment.gdprassessmentpanel.loadtest=INFO",
+                    "--logging.level.org.springframework.web=WARN"));
+
+            if (config.getReplicas() > 0) {
+                // Replicas get their schema and data once the application has brought the primary schema up to date
+                List<String> replicaUrls = new ArrayList<>();
+                for (int i = 0; i < config.getReplicas(); i++) {
+                    EmbeddedPostgres replica = EmbeddedPostgres.builder().start();
+                    replicas.add(replica);
+                    replicaUrls.add(replica.getJdbcUrl("postgres", "postgres"));
+                }
+                applicationArgs.add("--app.datasource.replica.urls=" + String.join(",", replicaUrls));
+            }
+            applicationArgs.addAll(config.getApplicationArgs());
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GdprAssessmentPanelApplication.class)
+                    .run(applicationArgs.toArray(new String[0]))) {
+                if (!replicas.isEmpty()) {
+                    startReplication(postgres, replicas, initSql);
+                }
+                run(config, context, postgres, replicas);
+            }
+        } finally {
+            for (EmbeddedPostgres replica : replicas) {
+                replica.close();
+            }
+        }
+    }
+
+    private static void execute(EmbeddedPostgres postgres, String sql) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    // Creates the primary's schema on each replica (init.sql plus whatever Hibernate added or widened)
+    // and subscribes the replica to all tables of the primary, starting with a full copy
+    private static void startReplication(EmbeddedPostgres primary, List<EmbeddedPostgres> replicas, String initSql) throws SQLException {
+        execute(primary, "CREATE PUBLICATION loadtest FOR ALL TABLES");
+        String columnsSql = "SELECT c.relname, a.attname, format_type(a.atttypid, a.atttypmod) " +
+                "FROM pg_attribute a JOIN pg_class c ON c.oid = a.attrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = 'public' AND c.relkind = 'r' AND a.attnum > 0 AND NOT a.attisdropped";
+        Map<String, String> primaryColumns = columnTypes(new JdbcTemplate(primary.getPostgresDatabase()), columnsSql);
+
+        for (int i = 0; i < replicas.size(); i++) {
+            EmbeddedPostgres replica = replicas.get(i);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getPostgresDatabase());
+            execute(replica, initSql);
+            Map<String, String> replicaColumns = columnTypes(jdbcTemplate, columnsSql);
+            primaryColumns.forEach((column, type) -> {
+                String[] name = column.split("\\.");
+                if (!replicaColumns.containsKey(column)) {
+                    jdbcTemplate.execute("ALTER TABLE " + name[0] + " ADD COLUMN " + name[1] + " " + type);
+                } else if (!replicaColumns.get(column).equals(type)) {
+                    jdbcTemplate.execute("ALTER TABLE " + name[0] + " ALTER COLUMN " + name[1] + " TYPE " + type);
+                }
+            });
+            List<String> tables = jdbcTemplate.queryForList("SELECT tablename FROM pg_tables WHERE schemaname = 'public'", String.class);
+            jdbcTemplate.execute("TRUNCATE " + String.join(", ", tables) + " CASCADE");
+            execute(replica, "CREATE SUBSCRIPTION loadtest_" + i + " CONNECTION 'host=localhost port=" + primary.getPort()
+                    + " user=postgres dbname=postgres' PUBLICATION loadtest");
+        }
+    }
+
+    private static Map<String, String> columnTypes(JdbcTemplate jdbcTemplate, String sql) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> columns.put(rs.getString(1) + "." + rs.getString(2), rs.getString(3)));
+        return columns;
+    }
+
+    // Waits until every replica has applied the seeded data
+    private static void awaitReplicas(EmbeddedPostgres primary, List<EmbeddedPostgres> replicas) throws Exception {
+        String countSql = "SELECT (SELECT count(*) FROM responses) + (SELECT count(*) FROM area_scores) + (SELECT count(*) FROM users)";
+        long expected = new JdbcTemplate(primary.getPostgresDatabase()).queryForObject(countSql, Long.class);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        for (EmbeddedPostgres replica : replicas) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getPostgresDatabase());
+            while (jdbcTemplate.queryForObject(countSql, Long.class) < expected) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Replica on port " + replica.getPort() + " did not catch up");
+                }
+                Thread.sleep(200);
+            }
+        }
+        logger.info("{} replica(s) caught up with the primary", replicas.size());
+    }
+
+    private static void run(LoadTestConfig config, ConfigurableApplicationContext context,
+                            EmbeddedPostgres primary, List<EmbeddedPostgres> replicas) throws Exception {
+        // Seeding happens after startup, once Hibernate has brought the schema up to date with the entities
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Map<String, List<Long>> seeded = new DataSeeder(context.getBean(JdbcTemplate.class)).seed(config, passwordHash);
+        context.getBean(DashboardAggregateService.class).rebuild();
+        if (!replicas.isEmpty()) {
+            awaitReplicas(primary, replicas);
+        }
+
+        LinkedBlockingQueue<VirtualUser.Account> accounts = new LinkedBlockingQueue<>();
+        seeded.forEach((username, ids) -> accounts.add(new VirtualUser.Account(username, Collections.synchronizedList(new ArrayList<>(ids)))));
+        if (accounts.size() <= config.getVirtualUsers()) {
+            throw new IllegalArgumentException("users must be greater than virtual-users, so signing in again can switch accounts");
+        }
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + context.getEnvironment().getProperty("server.servlet.context-path", "") + "/api";
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(2, config.getVirtualUsers() / 4));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(httpExecutor)
+                .build();
+        LatencyStats stats = new LatencyStats();
+
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getVirtualUsers());
+        for (int i = 0; i < config.getVirtualUsers(); i++) {
+            VirtualUser virtualUser = new VirtualUser(httpClient, objectMapper, baseUrl, PASSWORD, accounts,
+                    config.getMix(), stats, config.getSeed() + i);
+            virtualUsers.add(virtualUser);
+            executor.submit(virtualUser);
+        }
+
+        logger.info("Running {} virtual users against {}: {} s warmup, {} s measured",
+                config.getVirtualUsers(), baseUrl, config.getWarmup().toSeconds(), config.getDuration().toSeconds());
+        Thread.sleep(config.getWarmup().toMillis());
+        stats.reset();
+        Thread.sleep(config.getDuration().toMillis());
+        LatencyStats.Report report = stats.report();
+
+        virtualUsers.forEach(VirtualUser::stop);
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+        httpExecutor.shutdownNow();
+
+        report.print(System.out);
+        report.write(config.getOutput(), config, objectMapper);
+        logger.info("Results written to {}", config.getOutput().toAbsolutePath());
+        if (!replicas.isEmpty()) {
+            context.getBean(MeterRegistry.class).find("datasource.routed.connections").counters().forEach(counter ->
+                    logger.info("Connections to the {} ({}) since startup: {}", counter.getId().getTag("target"),
+                            counter.getId().getTag("reason"), (long) counter.count()));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Load test settings from --name=value arguments; arguments it does not know (e.g. --app.auth.bcrypt-strength=8)
+// are handed to the application under test
+@Getter
+public class LoadTestConfig {
+
+    private static final String DEFAULT_MIX = "signin:5,template:5,list:10,summaries:15,get:35,put:20,delete:5,scores:5";
+
+    private int users = 2000;
+    private int assessmentsPerUser = 2;
+    private int virtualUsers = 32;
+    // Embedded read replicas fed by logical replication; 0 runs against the primary only
+    private int replicas = 0;
+    private Duration warmup = Duration.ofSeconds(15);
+    private Duration duration = Duration.ofSeconds(60);
+    private Map<VirtualUser.Operation, Integer> mix = parseMix(DEFAULT_MIX);
+    private Path initSql = Path.of("../../database/init.sql");
+    private Path output = Path.of("loadtest-result.json");
+    private long seed = 42;
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "users" -> config.users = Integer.parseInt(value);
+                case "assessments-per-user" -> config.assessmentsPerUser = Integer.parseInt(value);
+                case "virtual-users" -> config.virtualUsers = Integer.parseInt(value);
+                case "replicas" -> config.replicas = Integer.parseInt(value);
+                case "warmup" -> config.warmup = parseDuration(value);
+                case "duration" -> config.duration = parseDuration(value);
+                case "mix" -> config.mix = parseMix(value);
+                case "init-sql" -> config.initSql = Path.of(value);
+                case "output" -> config.output = Path.of(value);
+                case "seed" -> config.seed = Long.parseLong(value);
+                default -> config.applicationArgs.add(arg);
+            }
+        }
+        if (config.users < 1 || config.virtualUsers < 1 || config.assessmentsPerUser < 1) {
+            throw new IllegalArgumentException("users, virtual-users and assessments-per-user must be positive");
+        }
+        return config;
+    }
+
+    // "90s", "5m" or plain seconds
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // operation:weight pairs, e.g. "get:70,put:30"
+    private static Map<VirtualUser.Operation, Integer> parseMix(String value) {
+        Map<VirtualUser.Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                mix.put(VirtualUser.Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,234 @@
+package com.rodoassessment.gdprassessmentpanel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+
+// One simulated user: signs in as a seeded user, then issues requests from the weighted operation mix
+// back to back (closed model, no think time) until stopped. Each virtual user takes a seeded account from
+// the shared queue and returns it when it signs in again, so no two virtual users edit the same assessments.
+public class VirtualUser implements Runnable {
+
+    public enum Operation {
+        SIGNIN, TEMPLATE, LIST, SUMMARIES, GET, SCORES, PUT, DELETE
+    }
+
+    private static final String[] RESPONSE_VALUES = {"TAK", "NIE", "W REALIZACJI", "ND"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String password;
+    private final BlockingQueue<Account> accounts;
+    private final Operation[] schedule;
+    private final LatencyStats stats;
+    private final Random random;
+    private volatile boolean running = true;
+
+    private Account account;
+    private String token;
+    // Last known tree of each assessment, modified and sent back by PUT
+    private final Map<Long, ObjectNode> trees = new HashMap<>();
+
+    public VirtualUser(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String password,
+                       BlockingQueue<Account> accounts, Map<Operation, Integer> mix, LatencyStats stats, long seed) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.password = password;
+        this.accounts = accounts;
+        this.stats = stats;
+        this.random = new Random(seed);
+
+        List<Operation> operations = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        this.schedule = operations.toArray(new Operation[0]);
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                if (token == null) {
+                    signIn();
+                    continue;
+                }
+                execute(schedule[random.nextInt(schedule.length)]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (account != null) {
+                accounts.add(account);
+            }
+        }
+    }
+
+    private void execute(Operation operation) throws InterruptedException {
+        switch (operation) {
+            case SIGNIN -> signIn();
+            case TEMPLATE -> send("GET /api/assessments/template", get("/assessments/template"));
+            case LIST -> send("GET /api/assessments", get("/assessments"));
+            case SUMMARIES -> send("GET /api/assessments/summaries", get("/assessments/summaries?limit=20"));
+            case GET -> load(randomAssessment());
+            case SCORES -> send("GET /api/assessments/{id}/scores", get("/assessments/" + randomAssessment() + "/scores"));
+            case PUT -> update(randomAssessment());
+            case DELETE -> replace(randomAssessment());
+        }
+    }
+
+    private void signIn() throws InterruptedException {
+        if (account != null) {
+            accounts.add(account);
+        }
+        account = accounts.take();
+        trees.clear();
+
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("username", account.getUsername())
+                .put("password", password);
+        JsonNode response = send("POST /api/auth/signin", json("/auth/signin", "POST", body, false));
+        token = response == null ? null : response.path("token").asText(null);
+    }
+
+    private ObjectNode load(Long id) throws InterruptedException {
+        JsonNode tree = send("GET /api/assessments/{id}", get("/assessments/" + id));
+        if (tree instanceof ObjectNode objectNode) {
+            trees.put(id, objectNode);
+            return objectNode;
+        }
+        return null;
+    }
+
+    // Autosave-like edit: a few requirement answers change, the rest of the tree is sent back unchanged
+    private void update(Long id) throws InterruptedException {
+        ObjectNode tree = trees.containsKey(id) ? trees.get(id) : load(id);
+        if (tree == null) {
+            return;
+        }
+        List<ObjectNode> requirements = new ArrayList<>();
+        for (JsonNode chapter : tree.path("chapters")) {
+            for (JsonNode area : chapter.path("areas")) {
+                for (JsonNode requirement : area.path("requirements")) {
+                    requirements.add((ObjectNode) requirement);
+                }
+            }
+        }
+        for (int i = 0; i < 3 && !requirements.isEmpty(); i++) {
+            requirements.get(random.nextInt(requirements.size()))
+                    .put("value", RESPONSE_VALUES[random.nextInt(RESPONSE_VALUES.length)]);
+        }
+
+        JsonNode updated = send("PUT /api/assessments/{id}", json("/assessments/" + id, "PUT", tree, true));
+        if (updated instanceof ObjectNode objectNode) {
+            trees.put(id, objectNode);
+        }
+    }
+
+    // Deletes an assessment and creates a fresh one from the template, keeping the data set size stable
+    private void replace(Long id) throws InterruptedException {
+        JsonNode deleted = send("DELETE /api/assessments/{id}", request("/assessments/" + id).DELETE().build());
+        if (deleted == null) {
+            return;
+        }
+        account.getAssessmentIds().remove(id);
+        trees.remove(id);
+
+        JsonNode template = send("GET /api/assessments/template", get("/assessments/template"));
+        if (!(template instanceof ObjectNode tree)) {
+            return;
+        }
+        tree.put("name", "Ocena " + account.getUsername() + " " + System.nanoTime());
+        for (JsonNode chapter : tree.path("chapters")) {
+            ArrayNode areas = (ArrayNode) chapter.path("areas");
+            for (JsonNode area : areas) {
+                for (JsonNode requirement : area.path("requirements")) {
+                    if (random.nextInt(10) < 7) {
+                        ((ObjectNode) requirement).put("value", RESPONSE_VALUES[random.nextInt(RESPONSE_VALUES.length)]);
+                    }
+                }
+            }
+        }
+        JsonNode created = send("POST /api/assessments", json("/assessments", "POST", tree, true));
+        if (created != null && created.hasNonNull("id")) {
+            account.getAssessmentIds().add(created.get("id").asLong());
+        }
+    }
+
+    private Long randomAssessment() {
+        List<Long> ids = account.getAssessmentIds();
+        return ids.isEmpty() ? 0L : ids.get(random.nextInt(ids.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, JsonNode body, boolean authorized) {
+        HttpRequest.Builder builder = authorized ? request(path) : HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    // Sends the request and records its latency under the endpoint name; returns the parsed body
+    // of a successful response, or null when the request failed
+    private JsonNode send(String endpoint, HttpRequest request) throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean error = response.statusCode() >= 400;
+            stats.record(endpoint, System.nanoTime() - started, error);
+            if (error) {
+                if (response.statusCode() == 401) {
+                    token = null;
+                }
+                return null;
+            }
+            byte[] body = response.body();
+            return body.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - started, true);
+            return null;
+        }
+    }
+
+    @lombok.Value
+    public static class Account {
+        String username;
+        List<Long> assessmentIds;
+    }
+}
@@ -0,0 +1,93 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.datasource.replica.urls}")
+    private String replicaUrls;
+
+    @Value("${app.datasource.replica.username}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.pool-size}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica.pin-after-write-ms}")
+    private long pinAfterWriteMs;
+
+    // Pools behind the routing data source, which Spring cannot close on its own
+    private final List<HikariDataSource> routedPools = new ArrayList<>();
+
+    // The primary pool is built like Spring Boot builds it (spring.datasource.*, spring.datasource.hikari.*).
+    // With replica URLs configured, read-only transactions are routed to the replicas.
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<String> urls = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            return primary;
+        }
+
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        routedPools.add(primary);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(primary.getDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // Spring Boot only instruments the primary pool
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            routedPools.add(replica);
+            replicas.add(replica);
+        }
+        logger.info("Routing read-only transactions to {} replica(s), reads pinned to the primary for {} ms after a write",
+                replicas.size(), pinAfterWriteMs);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, pinAfterWriteMs, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void closeRoutedPools() {
+        routedPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,76 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+
+// Caffeine-backed Hibernate second-level cache for the read-mostly catalog and role entities.
+// Every region is created here with a size limit; Hibernate refuses to start on a region missing below.
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String CHAPTER_REGION = "catalog.chapters";
+    public static final String AREA_REGION = "catalog.areas";
+    public static final String REQUIREMENT_REGION = "catalog.requirements";
+    public static final String CATALOG_QUERY_REGION = "catalog.queries";
+    public static final String ROLE_REGION = "roles";
+    public static final String ROLE_QUERY_REGION = "roles.queries";
+
+    @Value("${app.cache.catalog.max-entries}")
+    private long catalogMaxEntries;
+
+    @Value("${app.cache.roles.max-entries}")
+    private long roleMaxEntries;
+
+    @Value("${app.cache.queries.max-entries}")
+    private long queryMaxEntries;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        createCache(cacheManager, meterRegistry, CHAPTER_REGION, catalogMaxEntries);
+        createCache(cacheManager, meterRegistry, AREA_REGION, catalogMaxEntries);
+        createCache(cacheManager, meterRegistry, REQUIREMENT_REGION, catalogMaxEntries);
+        createCache(cacheManager, meterRegistry, CATALOG_QUERY_REGION, queryMaxEntries);
+        createCache(cacheManager, meterRegistry, ROLE_REGION, roleMaxEntries);
+        createCache(cacheManager, meterRegistry, ROLE_QUERY_REGION, queryMaxEntries);
+        createCache(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryMaxEntries);
+        // One entry per table; evicting one would make cached query results look fresh
+        createCache(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // A max-entries of 0 leaves the region unbounded
+    private static void createCache(CacheManager cacheManager, MeterRegistry meterRegistry, String name, long maxEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        configuration.setStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+}
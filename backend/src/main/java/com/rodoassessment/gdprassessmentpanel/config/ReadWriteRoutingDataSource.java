@@ -0,0 +1,175 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Sends read-only transactions to the replicas (round robin) and everything else to the primary.
+// Has to sit behind a LazyConnectionDataSourceProxy, so the connection is only fetched once the
+// transaction's read-only flag is set.
+//
+// Replicas lag behind the primary, so after a user's write commits their reads stay on the primary
+// for the pin window; they always see their own changes. Writes made on a user's behalf outside their
+// request, e.g. autosave edits flushed in the background, pin that user through writeFor(). A replica
+// that cannot hand out a connection is skipped in favour of the primary.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Stale pins are purged once this many users are tracked
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Long> WRITING_FOR = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final long pinNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // User id -> System.nanoTime() of the last committed write
+    private final ConcurrentHashMap<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final Counter primaryWrites;
+    private final Counter primaryPinnedReads;
+    private final Counter replicaReads;
+    private final Counter replicaFailures;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, long pinAfterWriteMs,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.pinNanos = TimeUnit.MILLISECONDS.toNanos(pinAfterWriteMs);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        String name = "datasource.routed.connections";
+        primaryWrites = Counter.builder(name).tags("target", "primary", "reason", "write").register(meterRegistry);
+        primaryPinnedReads = Counter.builder(name).tags("target", "primary", "reason", "pinned").register(meterRegistry);
+        replicaReads = Counter.builder(name).tags("target", "replica", "reason", "read").register(meterRegistry);
+        replicaFailures = Counter.builder("datasource.replica.failures")
+                .description("Read-only connections served by the primary because a replica was unavailable")
+                .register(meterRegistry);
+    }
+
+    // Runs the action with read-only transactions on the primary, for reads whose result must not be stale,
+    // e.g. because it is cached under a key taken from the primary
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    // Runs the action's writes on behalf of the given user, so their reads are pinned after it commits even
+    // though the action runs without their authentication
+    public static <T> T writeFor(Long userId, Supplier<T> action) {
+        Long previous = WRITING_FOR.get();
+        WRITING_FOR.set(userId);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                WRITING_FOR.remove();
+            } else {
+                WRITING_FOR.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            pinAfterCommit();
+            return PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() != null || isPinned()) {
+            primaryPinnedReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return target.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            replicaFailures.increment();
+            logger.warn("Replica unavailable, reading from the primary: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    private void pinAfterCommit() {
+        Long userId = WRITING_FOR.get() != null ? WRITING_FOR.get() : currentUserId();
+        if (pinNanos <= 0 || userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                lastWrites.put(userId, now);
+                if (lastWrites.size() > PURGE_THRESHOLD) {
+                    lastWrites.values().removeIf(written -> now - written > pinNanos);
+                }
+            }
+        });
+    }
+
+    private boolean isPinned() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long written = lastWrites.get(userId);
+        return written != null && System.nanoTime() - written < pinNanos;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.rodoassessment.gdprassessmentpanel.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
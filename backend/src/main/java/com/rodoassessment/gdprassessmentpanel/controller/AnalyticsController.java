@@ -0,0 +1,138 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.AnalyticsService;
+import com.rodoassessment.gdprassessmentpanel.service.ColumnStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+// Statistics across the assessments of all users, hence admin only like the global dashboard; only the
+// live queries are open to users, narrowed to their own assessments
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ColumnStoreService columnStoreService;
+
+    @GetMapping("/failure-rates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getFailureRates(@RequestParam(defaultValue = "requirement") String level,
+                                             @RequestParam(required = false) Long chapterId,
+                                             @RequestParam(required = false) Long areaId,
+                                             @RequestParam(defaultValue = "1") long minAnswers,
+                                             @RequestParam(required = false) Integer limit) {
+        try {
+            int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+            return ResponseEntity.ok(analyticsService.getFailureRates(level(level), chapterId, areaId, minAnswers, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    // from and to are months, e.g. 2026-01; both are inclusive
+    @GetMapping("/trend")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getTrend(@RequestParam(defaultValue = "overall") String level,
+                                      @RequestParam(required = false) Long id,
+                                      @RequestParam(required = false) String from,
+                                      @RequestParam(required = false) String to) {
+        try {
+            AnalyticsService.Level trendLevel = level(level);
+            if (trendLevel != AnalyticsService.Level.OVERALL && id == null) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: Parameter id is required for level " + level + "."));
+            }
+            return ResponseEntity.ok(analyticsService.getTrend(trendLevel, id, month(from), month(to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    // Refreshes the views right away instead of waiting for the schedule; the request does not wait for it
+    @PostMapping("/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> refresh() {
+        if (analyticsService.requestRefresh()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new MessageResponse("Analytics refresh started."));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new MessageResponse("Analytics refresh is already running."));
+    }
+
+    // Answer counts from the in-memory column store, current up to the last committed write
+    @GetMapping("/live")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getLive(@RequestParam(defaultValue = "requirement") String groupBy,
+                                     @RequestParam(required = false) String status,
+                                     @RequestParam(required = false) Long userId,
+                                     @RequestParam(required = false) Long chapterId,
+                                     @RequestParam(required = false) Long areaId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin && userId != null && !userId.equals(userDetails.getId())) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: You don't have permission to query assessments of other users."));
+        }
+        try {
+            ColumnStoreService.GroupBy grouping;
+            try {
+                grouping = ColumnStoreService.GroupBy.valueOf(groupBy.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Error: Unknown groupBy " + groupBy + ".");
+            }
+            return ResponseEntity.ok(columnStoreService.query(grouping, admin ? userId : userDetails.getId(),
+                    status, chapterId, areaId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    // Rebuilds the column store from the database, e.g. after rows were changed outside the backend
+    @PostMapping("/live/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> reloadLive() {
+        if (!columnStoreService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponse("Error: The column store is not enabled."));
+        }
+        if (columnStoreService.requestLoad()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new MessageResponse("Column store reload started."));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new MessageResponse("Column store reload is already running."));
+    }
+
+    private static AnalyticsService.Level level(String level) {
+        try {
+            return AnalyticsService.Level.valueOf(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error: Unknown level " + level + ".");
+        }
+    }
+
+    private static YearMonth month(String month) {
+        if (month == null || month.isEmpty()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Error: Invalid month " + month + ", expected e.g. 2026-01.");
+        }
+    }
+}
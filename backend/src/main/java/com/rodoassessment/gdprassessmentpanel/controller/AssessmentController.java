@@ -1,27 +1,47 @@
 package com.rodoassessment.gdprassessmentpanel.controller;
 
 import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentPatchRequest;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentPatchResponse;
 import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.metrics.StatementStatistics;
 import com.rodoassessment.gdprassessmentpanel.model.*;
 import com.rodoassessment.gdprassessmentpanel.repository.*;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentChanges;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentReadService;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentSummaryService;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentWriteService;
+import com.rodoassessment.gdprassessmentpanel.service.AutosaveBuffer;
+import com.rodoassessment.gdprassessmentpanel.service.ScoringService;
+import com.rodoassessment.gdprassessmentpanel.service.TemplateCache;
+import com.rodoassessment.gdprassessmentpanel.service.ValueChange;
+import com.rodoassessment.gdprassessmentpanel.service.ValueEdit;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/assessments")
 public class AssessmentController {
 
+    private static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
     @Autowired
     private AssessmentRepository assessmentRepository;
 
@@ -29,19 +49,25 @@ public class AssessmentController {
     private UserRepository userRepository;
 
     @Autowired
-    private ChapterRepository chapterRepository;
+    private AssessmentReadService assessmentReadService;
+
+    @Autowired
+    private AssessmentWriteService assessmentWriteService;
 
     @Autowired
-    private AreaRepository areaRepository;
+    private AssessmentSummaryService assessmentSummaryService;
 
     @Autowired
-    private RequirementRepository requirementRepository;
+    private TemplateCache templateCache;
 
     @Autowired
-    private ResponseRepository responseRepository;
+    private AutosaveBuffer autosaveBuffer;
 
     @Autowired
-    private AreaScoreRepository areaScoreRepository;
+    private ScoringService scoringService;
+
+    @Value("${app.template.max-age-seconds}")
+    private long templateMaxAgeSeconds;
 
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -53,11 +79,24 @@ public class AssessmentController {
                 .orElseThrow(() -> new RuntimeException("Error: User not found."));
         
         List<Assessment> assessments = assessmentRepository.findByUserOrderByCreatedAtDesc(user);
-        List<AssessmentDto> assessmentDtos = assessments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<AssessmentDto> body = assessmentReadService.readAll(assessments);
         
-        return ResponseEntity.ok(assessmentDtos);
+        return okWithQueryCount().body(body);
+    }
+
+    // Lightweight, keyset-paginated list for the dashboard; pass nextCursor of a page to get the following one
+    @GetMapping("/summaries")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getAssessmentSummaries(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        try {
+            return ResponseEntity.ok(assessmentSummaryService.findPage(userDetails.getId(), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -75,7 +114,25 @@ public class AssessmentController {
                     .body(new MessageResponse("Error: You don't have permission to access this assessment."));
         }
         
-        return ResponseEntity.ok(convertToDto(assessment));
+        return toResponse(assessment);
+    }
+
+    @GetMapping("/{id}/scores")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getAssessmentScores(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+        
+        return ResponseEntity.ok(scoringService.getScores(assessment.getId()));
     }
 
     @PostMapping
@@ -87,54 +144,14 @@ public class AssessmentController {
         User user = userRepository.findById(userDetails.getId())
                 .orElseThrow(() -> new RuntimeException("Error: User not found."));
         
-        Assessment assessment = new Assessment();
-        assessment.setName(assessmentDto.getName());
-        assessment.setDescription(assessmentDto.getDescription());
-        assessment.setStatus("DRAFT");
-        assessment.setUser(user);
-        
-        Assessment savedAssessment = assessmentRepository.save(assessment);
-        
-        // Process responses and area scores if provided
-        if (assessmentDto.getChapters() != null) {
-            for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
-                if (chapterDto.getAreas() != null) {
-                    for (AssessmentDto.AreaDto areaDto : chapterDto.getAreas()) {
-                        // Save area score if provided
-                        if (areaDto.getScore() != null && !areaDto.getScore().isEmpty()) {
-                            Optional<Area> areaOpt = areaRepository.findById(areaDto.getId());
-                            if (areaOpt.isPresent()) {
-                                AreaScore areaScore = new AreaScore();
-                                areaScore.setAssessment(savedAssessment);
-                                areaScore.setArea(areaOpt.get());
-                                areaScore.setScore(areaDto.getScore());
-                                areaScore.setComment(areaDto.getComment());
-                                areaScoreRepository.save(areaScore);
-                            }
-                        }
-                        
-                        // Save responses if provided
-                        if (areaDto.getRequirements() != null) {
-                            for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
-                                if (reqDto.getValue() != null && !reqDto.getValue().isEmpty()) {
-                                    Optional<Requirement> reqOpt = requirementRepository.findById(reqDto.getId());
-                                    if (reqOpt.isPresent()) {
-                                        Response response = new Response();
-                                        response.setAssessment(savedAssessment);
-                                        response.setRequirement(reqOpt.get());
-                                        response.setValue(reqDto.getValue());
-                                        response.setComment(reqDto.getComment());
-                                        responseRepository.save(response);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+        Assessment savedAssessment;
+        try {
+            savedAssessment = assessmentWriteService.create(user, assessmentDto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
         
-        return ResponseEntity.ok(convertToDto(savedAssessment));
+        return toResponse(savedAssessment);
     }
 
     @PutMapping("/{id}")
@@ -152,64 +169,84 @@ public class AssessmentController {
                     .body(new MessageResponse("Error: You don't have permission to update this assessment."));
         }
         
-        assessment.setName(assessmentDto.getName());
-        assessment.setDescription(assessmentDto.getDescription());
-        assessment.setStatus(assessmentDto.getStatus());
+        // Buffered autosave edits predate this full update; flushed after it they would overwrite it
+        autosaveBuffer.discard(assessment.getId());
+        Assessment savedAssessment;
+        try {
+            savedAssessment = assessmentWriteService.update(assessment, assessmentDto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+        
+        return toResponse(savedAssessment);
+    }
+
+    // Applies only the submitted answers and returns only those that actually changed
+    @PatchMapping("/{id}/responses")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> patchResponses(@PathVariable Long id, @Valid @RequestBody AssessmentPatchRequest patchRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
         
-        Assessment savedAssessment = assessmentRepository.save(assessment);
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to update this assessment."));
+        }
         
-        // Process responses and area scores if provided
-        if (assessmentDto.getChapters() != null) {
-            for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
-                if (chapterDto.getAreas() != null) {
-                    for (AssessmentDto.AreaDto areaDto : chapterDto.getAreas()) {
-                        // Update area score if provided
-                        if (areaDto.getScore() != null) {
-                            Optional<Area> areaOpt = areaRepository.findById(areaDto.getId());
-                            if (areaOpt.isPresent()) {
-                                Optional<AreaScore> areaScoreOpt = areaScoreRepository.findByAssessmentIdAndAreaId(id, areaDto.getId());
-                                AreaScore areaScore;
-                                if (areaScoreOpt.isPresent()) {
-                                    areaScore = areaScoreOpt.get();
-                                } else {
-                                    areaScore = new AreaScore();
-                                    areaScore.setAssessment(savedAssessment);
-                                    areaScore.setArea(areaOpt.get());
-                                }
-                                areaScore.setScore(areaDto.getScore());
-                                areaScore.setComment(areaDto.getComment());
-                                areaScoreRepository.save(areaScore);
-                            }
-                        }
-                        
-                        // Update responses if provided
-                        if (areaDto.getRequirements() != null) {
-                            for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
-                                if (reqDto.getValue() != null) {
-                                    Optional<Requirement> reqOpt = requirementRepository.findById(reqDto.getId());
-                                    if (reqOpt.isPresent()) {
-                                        Optional<Response> responseOpt = responseRepository.findByAssessmentIdAndRequirementId(id, reqDto.getId());
-                                        Response response;
-                                        if (responseOpt.isPresent()) {
-                                            response = responseOpt.get();
-                                        } else {
-                                            response = new Response();
-                                            response.setAssessment(savedAssessment);
-                                            response.setRequirement(reqOpt.get());
-                                        }
-                                        response.setValue(reqDto.getValue());
-                                        response.setComment(reqDto.getComment());
-                                        responseRepository.save(response);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
+        Map<Long, ValueEdit> responseEdits = new LinkedHashMap<>();
+        if (patchRequest.getResponses() != null) {
+            for (AssessmentPatchRequest.ResponseChangeDto change : patchRequest.getResponses()) {
+                responseEdits.put(change.getRequirementId(), new ValueEdit(change.getValue(), change.getComment()));
+            }
+        }
+        Map<Long, ValueEdit> scoreEdits = new LinkedHashMap<>();
+        if (patchRequest.getAreaScores() != null) {
+            for (AssessmentPatchRequest.AreaScoreChangeDto change : patchRequest.getAreaScores()) {
+                scoreEdits.put(change.getAreaId(), new ValueEdit(change.getScore(), change.getComment()));
             }
         }
         
-        return ResponseEntity.ok(convertToDto(savedAssessment));
+        // With write-behind enabled the edits are only validated and buffered; they are written with the next flush
+        if (autosaveBuffer.isEnabled()) {
+            try {
+                assessmentWriteService.validate(responseEdits, scoreEdits);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+            }
+            autosaveBuffer.submit(assessment.getId(), assessment.getUser().getId(), responseEdits, scoreEdits);
+            
+            AssessmentPatchResponse patchResponse = new AssessmentPatchResponse();
+            patchResponse.setId(assessment.getId());
+            patchResponse.setUpdatedAt(assessment.getUpdatedAt());
+            patchResponse.setResponses(patchRequest.getResponses());
+            patchResponse.setAreaScores(patchRequest.getAreaScores());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(patchResponse);
+        }
+        
+        AssessmentChanges changes;
+        try {
+            changes = assessmentWriteService.patch(assessment, responseEdits, scoreEdits);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+        
+        AssessmentPatchResponse patchResponse = new AssessmentPatchResponse();
+        patchResponse.setId(assessment.getId());
+        patchResponse.setUpdatedAt(assessment.getUpdatedAt());
+        for (ValueChange change : changes.getResponses()) {
+            patchResponse.getResponses().add(new AssessmentPatchRequest.ResponseChangeDto(
+                    change.getItemId(), change.getNewValue(), change.getNewComment()));
+        }
+        for (ValueChange change : changes.getAreaScores()) {
+            patchResponse.getAreaScores().add(new AssessmentPatchRequest.AreaScoreChangeDto(
+                    change.getItemId(), change.getNewValue(), change.getNewComment()));
+        }
+        
+        return ResponseEntity.ok(patchResponse);
     }
 
     @DeleteMapping("/{id}")
@@ -227,141 +264,69 @@ public class AssessmentController {
                     .body(new MessageResponse("Error: You don't have permission to delete this assessment."));
         }
         
-        assessmentRepository.delete(assessment);
+        autosaveBuffer.discard(assessment.getId());
+        assessmentWriteService.delete(assessment);
         
         return ResponseEntity.ok(new MessageResponse("Assessment deleted successfully!"));
     }
 
     @GetMapping("/template")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<AssessmentDto> getAssessmentTemplate() {
-        List<Chapter> chapters = chapterRepository.findAllByOrderByOrderNumberAsc();
-        
-        AssessmentDto template = new AssessmentDto();
-        template.setId(null);
-        template.setName("");
-        template.setDescription("");
-        template.setStatus("DRAFT");
+    public ResponseEntity<byte[]> getAssessmentTemplate(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TemplateCache.RenderedTemplate template = templateCache.get();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        CacheControl cacheControl = CacheControl.maxAge(templateMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate();
         
-        List<AssessmentDto.ChapterDto> chapterDtos = new ArrayList<>();
-        for (Chapter chapter : chapters) {
-            AssessmentDto.ChapterDto chapterDto = new AssessmentDto.ChapterDto();
-            chapterDto.setId(chapter.getId());
-            chapterDto.setName(chapter.getName());
-            chapterDto.setDescription(chapter.getDescription());
-            chapterDto.setOrderNumber(chapter.getOrderNumber());
-            
-            List<Area> areas = areaRepository.findByChapterOrderByOrderNumberAsc(chapter);
-            List<AssessmentDto.AreaDto> areaDtos = new ArrayList<>();
-            
-            for (Area area : areas) {
-                AssessmentDto.AreaDto areaDto = new AssessmentDto.AreaDto();
-                areaDto.setId(area.getId());
-                areaDto.setName(area.getName());
-                areaDto.setDescription(area.getDescription());
-                areaDto.setOrderNumber(area.getOrderNumber());
-                areaDto.setScore("");
-                areaDto.setComment("");
-                
-                List<Requirement> requirements = requirementRepository.findByAreaOrderByOrderNumberAsc(area);
-                List<AssessmentDto.RequirementDto> reqDtos = new ArrayList<>();
-                
-                for (Requirement req : requirements) {
-                    AssessmentDto.RequirementDto reqDto = new AssessmentDto.RequirementDto();
-                    reqDto.setId(req.getId());
-                    reqDto.setText(req.getText());
-                    reqDto.setOrderNumber(req.getOrderNumber());
-                    reqDto.setValue("");
-                    reqDto.setComment("");
-                    reqDtos.add(reqDto);
-                }
-                
-                areaDto.setRequirements(reqDtos);
-                areaDtos.add(areaDto);
-            }
-            
-            chapterDto.setAreas(areaDtos);
-            chapterDtos.add(chapterDto);
+        // Clients that already hold the current template get an empty 304 without any rendering
+        if (template.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(gzip ? template.getGzipEtag() : template.getEtag())
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
         }
         
-        template.setChapters(chapterDtos);
-        
-        return ResponseEntity.ok(template);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.eTag(template.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(template.getGzip());
+        }
+        return response.eTag(template.getEtag()).body(template.getPlain());
     }
 
-    private AssessmentDto convertToDto(Assessment assessment) {
-        AssessmentDto dto = new AssessmentDto();
-        dto.setId(assessment.getId());
-        dto.setName(assessment.getName());
-        dto.setDescription(assessment.getDescription());
-        dto.setStatus(assessment.getStatus());
-        dto.setCreatedAt(assessment.getCreatedAt());
-        dto.setUpdatedAt(assessment.getUpdatedAt());
-        
-        List<Chapter> chapters = chapterRepository.findAllByOrderByOrderNumberAsc();
-        List<AssessmentDto.ChapterDto> chapterDtos = new ArrayList<>();
-        
-        for (Chapter chapter : chapters) {
-            AssessmentDto.ChapterDto chapterDto = new AssessmentDto.ChapterDto();
-            chapterDto.setId(chapter.getId());
-            chapterDto.setName(chapter.getName());
-            chapterDto.setDescription(chapter.getDescription());
-            chapterDto.setOrderNumber(chapter.getOrderNumber());
-            
-            List<Area> areas = areaRepository.findByChapterOrderByOrderNumberAsc(chapter);
-            List<AssessmentDto.AreaDto> areaDtos = new ArrayList<>();
-            
-            for (Area area : areas) {
-                AssessmentDto.AreaDto areaDto = new AssessmentDto.AreaDto();
-                areaDto.setId(area.getId());
-                areaDto.setName(area.getName());
-                areaDto.setDescription(area.getDescription());
-                areaDto.setOrderNumber(area.getOrderNumber());
-                
-                // Get area score if exists
-                Optional<AreaScore> areaScoreOpt = areaScoreRepository.findByAssessmentIdAndAreaId(assessment.getId(), area.getId());
-                if (areaScoreOpt.isPresent()) {
-                    AreaScore areaScore = areaScoreOpt.get();
-                    areaDto.setScore(areaScore.getScore());
-                    areaDto.setComment(areaScore.getComment());
-                } else {
-                    areaDto.setScore("");
-                    areaDto.setComment("");
-                }
-                
-                List<Requirement> requirements = requirementRepository.findByAreaOrderByOrderNumberAsc(area);
-                List<AssessmentDto.RequirementDto> reqDtos = new ArrayList<>();
-                
-                for (Requirement req : requirements) {
-                    AssessmentDto.RequirementDto reqDto = new AssessmentDto.RequirementDto();
-                    reqDto.setId(req.getId());
-                    reqDto.setText(req.getText());
-                    reqDto.setOrderNumber(req.getOrderNumber());
-                    
-                    // Get response if exists
-                    Optional<Response> responseOpt = responseRepository.findByAssessmentIdAndRequirementId(assessment.getId(), req.getId());
-                    if (responseOpt.isPresent()) {
-                        Response response = responseOpt.get();
-                        reqDto.setValue(response.getValue());
-                        reqDto.setComment(response.getComment());
-                    } else {
-                        reqDto.setValue("");
-                        reqDto.setComment("");
-                    }
-                    
-                    reqDtos.add(reqDto);
-                }
-                
-                areaDto.setRequirements(reqDtos);
-                areaDtos.add(areaDto);
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"));
             }
-            
-            chapterDto.setAreas(areaDtos);
-            chapterDtos.add(chapterDto);
         }
+        return false;
+    }
+
+    private ResponseEntity<AssessmentDto> toResponse(Assessment assessment) {
+        AssessmentDto body = assessmentReadService.read(assessment);
         
-        dto.setChapters(chapterDtos);
-        
-        return dto;
+        return okWithQueryCount().body(body);
+    }
+
+    // Reports the SQL statements the request has executed so far, as counted by the JDBC proxy, including
+    // any write before the read
+    private static ResponseEntity.BodyBuilder okWithQueryCount() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        StatementStatistics statistics = StatementStatistics.current();
+        if (statistics != null) {
+            response.header(QUERY_COUNT_HEADER, String.valueOf(statistics.getCount()));
+        }
+        return response;
     }
 }
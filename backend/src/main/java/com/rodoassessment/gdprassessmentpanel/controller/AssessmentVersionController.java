@@ -0,0 +1,83 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentRepository;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/assessments")
+public class AssessmentVersionController {
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private AssessmentVersionService assessmentVersionService;
+
+    // Newest versions first; pass nextCursor of a page to get the following one
+    @GetMapping("/{id}/versions")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getVersions(@PathVariable Long id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        return withAssessment(id, () -> assessmentVersionService.findPage(id, cursor, limit));
+    }
+
+    @GetMapping("/{id}/versions/{version}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getVersion(@PathVariable Long id, @PathVariable int version) {
+        return withAssessment(id, () -> assessmentVersionService.getVersion(id, version));
+    }
+
+    // The version that was current at the given time
+    @GetMapping("/{id}/versions/as-of")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getVersionAt(@PathVariable Long id,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return withAssessment(id, () -> assessmentVersionService.getVersionAt(id, at));
+    }
+
+    // Requirements and area scores that differ between two versions, given by number or point in time
+    @GetMapping("/{id}/versions/compare")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> compareVersions(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromAt,
+            @RequestParam(required = false) Integer to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toAt) {
+        return withAssessment(id, () -> assessmentVersionService.compare(id, from, fromAt, to, toAt));
+    }
+
+    private ResponseEntity<?> withAssessment(Long id, Supplier<Object> body) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+
+        try {
+            return ResponseEntity.ok(body.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
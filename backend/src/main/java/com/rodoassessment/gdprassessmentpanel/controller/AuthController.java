@@ -9,20 +9,25 @@ import com.rodoassessment.gdprassessmentpanel.model.User;
 import com.rodoassessment.gdprassessmentpanel.repository.RoleRepository;
 import com.rodoassessment.gdprassessmentpanel.repository.UserRepository;
 import com.rodoassessment.gdprassessmentpanel.security.jwt.JwtUtils;
+import com.rodoassessment.gdprassessmentpanel.security.services.PasswordHashingExecutor;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -44,13 +49,25 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    PasswordHashingExecutor passwordHashingExecutor;
+
+    @Value("${app.auth.hashing.retry-after-seconds}")
+    int retryAfterSeconds;
+
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        try {
+            return passwordHashingExecutor.submit(() -> signIn(loginRequest));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingSaturated());
+        }
+    }
 
+    private ResponseEntity<?> signIn(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
         
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -66,19 +83,27 @@ public class AuthController {
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .badRequest()
-                    .body(new MessageResponse("Error: Username is already taken!"));
+                    .body(new MessageResponse("Error: Username is already taken!")));
         }
 
         if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .badRequest()
-                    .body(new MessageResponse("Error: Email is already in use!"));
+                    .body(new MessageResponse("Error: Email is already in use!")));
         }
 
+        try {
+            return passwordHashingExecutor.submit(() -> register(signUpRequest));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingSaturated());
+        }
+    }
+
+    private ResponseEntity<?> register(SignupRequest signUpRequest) {
         // Create new user's account
         User user = new User();
         user.setUsername(signUpRequest.getUsername());
@@ -113,4 +138,10 @@ public class AuthController {
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
+
+    private ResponseEntity<?> hashingSaturated() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new MessageResponse("Error: Too many sign-in requests, please try again shortly."));
+    }
 }
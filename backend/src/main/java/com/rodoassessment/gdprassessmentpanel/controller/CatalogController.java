@@ -0,0 +1,41 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.CatalogVersionDto;
+import com.rodoassessment.gdprassessmentpanel.service.CatalogService;
+import com.rodoassessment.gdprassessmentpanel.service.CatalogSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @GetMapping("/version")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<CatalogVersionDto> getVersion() {
+        return ResponseEntity.ok(toDto(catalogService.getSnapshot()));
+    }
+
+    // Reloads the catalog after it was edited directly in the database
+    @PostMapping("/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CatalogVersionDto> refresh() {
+        return ResponseEntity.ok(toDto(catalogService.refresh()));
+    }
+
+    private CatalogVersionDto toDto(CatalogSnapshot snapshot) {
+        return new CatalogVersionDto(
+                snapshot.getVersion(),
+                snapshot.getFingerprint(),
+                snapshot.getLoadedAt(),
+                snapshot.getChapters().size(),
+                snapshot.getAreaCount(),
+                snapshot.getRequirementCount());
+    }
+}
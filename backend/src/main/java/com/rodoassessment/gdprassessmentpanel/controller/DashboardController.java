@@ -0,0 +1,44 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.DashboardDto;
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.DashboardAggregateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DashboardDto> getDashboard() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        return ResponseEntity.ok(dashboardAggregateService.getDashboard(userDetails.getId()));
+    }
+
+    @GetMapping("/global")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DashboardDto> getGlobalDashboard() {
+        return ResponseEntity.ok(dashboardAggregateService.getDashboard(null));
+    }
+
+    // Recomputes the aggregates from the assessment tables, e.g. after data was changed directly in the database
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuild() {
+        dashboardAggregateService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Dashboard aggregates rebuilt successfully!"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.repository.ExportRepository;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Users export their own assessments; admins export everyone's, optionally narrowed to one user
+    @GetMapping("/assessments")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAssessments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+
+        ExportService.Format exportFormat;
+        if (format.equalsIgnoreCase("csv")) {
+            exportFormat = ExportService.Format.CSV;
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            exportFormat = ExportService.Format.NDJSON;
+        } else {
+            return badRequest("Error: Unsupported export format " + format + ".");
+        }
+
+        if (!admin && userId != null && !userId.equals(userDetails.getId())) {
+            return badRequest("Error: You don't have permission to export assessments of other users.");
+        }
+
+        ExportRepository.Filter filter = new ExportRepository.Filter(
+                admin ? userId : userDetails.getId(),
+                status,
+                createdFrom == null ? null : createdFrom.atStartOfDay(),
+                createdTo == null ? null : createdTo.plusDays(1).atStartOfDay());
+
+        String extension = exportFormat == ExportService.Format.CSV ? ".csv" : ".ndjson";
+        MediaType contentType = exportFormat == ExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson");
+        String fileName = "assessments-" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + extension
+                + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> exportService.export(filter, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(gzip ? new MediaType("application", "gzip") : contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    // Streaming handlers need the body type declared, so error messages are streamed as JSON too
+    private ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, new MessageResponse(message)));
+    }
+}
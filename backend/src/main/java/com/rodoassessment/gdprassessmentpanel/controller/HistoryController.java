@@ -0,0 +1,78 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentEventRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentRepository;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.ChangeHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private static final Set<String> EVENT_TYPES = Set.of("RESPONSE", "AREA_SCORE", "CREATED", "STATUS", "DELETED");
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private ChangeHistoryService changeHistoryService;
+
+    // Newest changes first; pass nextCursor of a page to get the following one. Admins can also read
+    // the history of deleted assessments.
+    @GetMapping("/{assessmentId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getHistory(
+            @PathVariable Long assessmentId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+
+        Optional<Assessment> assessment = assessmentRepository.findById(assessmentId);
+        if (assessment.isEmpty() && !admin) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Assessment not found."));
+        }
+        
+        // Check if the assessment belongs to the current user
+        if (assessment.isPresent() && !admin && !assessment.get().getUser().getId().equals(userDetails.getId())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment."));
+        }
+
+        if (type != null && !EVENT_TYPES.contains(type)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Unsupported change type " + type + "."));
+        }
+
+        AssessmentEventRepository.Filter filter = new AssessmentEventRepository.Filter(
+                type,
+                itemId,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay());
+
+        try {
+            return ResponseEntity.ok(changeHistoryService.findPage(assessmentId, filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.repository.UserRepository;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Takes a file in the export's format as the raw request body, which is read as it arrives. Form content
+    // types are refused: the servlet container would consume such a body as request parameters.
+    // Users import into their own account; admins may import on behalf of another user.
+    @PostMapping(value = "/assessments",
+            consumes = {"text/csv", "text/plain", "application/x-ndjson", "application/json", "application/gzip", "application/octet-stream"})
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> importAssessments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            InputStream body) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+
+        ImportService.Format importFormat;
+        if (format.equalsIgnoreCase("csv")) {
+            importFormat = ImportService.Format.CSV;
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            importFormat = ImportService.Format.NDJSON;
+        } else {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Unsupported import format " + format + "."));
+        }
+
+        if (userId == null || userId.equals(userDetails.getId())) {
+            userId = userDetails.getId();
+        } else if (!admin) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to import assessments for other users."));
+        } else if (!userRepository.existsById(userId)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: User not found."));
+        }
+
+        try {
+            return ResponseEntity.ok(importService.importAssessments(userId, importFormat, gzip, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
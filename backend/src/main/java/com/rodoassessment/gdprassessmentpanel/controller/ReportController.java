@@ -0,0 +1,68 @@
+package com.rodoassessment.gdprassessmentpanel.controller;
+
+import com.rodoassessment.gdprassessmentpanel.dto.MessageResponse;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentRepository;
+import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
+import com.rodoassessment.gdprassessmentpanel.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/assessments")
+public class ReportController {
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${app.reports.retry-after-seconds}")
+    private int retryAfterSeconds;
+
+    @GetMapping("/{id}/report")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public CompletableFuture<ResponseEntity<?>> getReport(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+        
+        // Check if the assessment belongs to the current user
+        if (!assessment.getUser().getId().equals(userDetails.getId())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: You don't have permission to access this assessment.")));
+        }
+
+        String etag = "\"" + reportService.reportKey(assessment) + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+        }
+
+        try {
+            return reportService.getReport(assessment).thenApply(report -> ResponseEntity.ok()
+                    .eTag("\"" + report.getKey() + "\"")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.inline().filename("raport-oceny-" + id + ".pdf").build().toString())
+                    .body(report.getResource()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(new MessageResponse("Error: Too many reports are being generated, please try again shortly.")));
+        }
+    }
+}
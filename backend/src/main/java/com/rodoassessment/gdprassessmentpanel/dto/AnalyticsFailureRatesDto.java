@@ -0,0 +1,36 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsFailureRatesDto {
+    private AnalyticsFreshnessDto freshness;
+    private String level;
+    // Highest failure rate first
+    private List<FailureRateDto> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FailureRateDto {
+        private Long id;
+        private String name;
+        private Long chapterId;
+        private Long areaId;
+        // Answers other than blank, including ND
+        private long answeredCount;
+        private long positiveCount;
+        private long failedCount;
+        private long inProgressCount;
+        private long notApplicableCount;
+        // Share of NIE among the scored answers (TAK, NIE, W REALIZACJI), in percent
+        private Integer failurePercent;
+    }
+}
@@ -0,0 +1,20 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// How current the analytics numbers are; they come from a snapshot taken at refreshedAt
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsFreshnessDto {
+    // Null until the first refresh has finished
+    private LocalDateTime refreshedAt;
+    private Long refreshDurationMs;
+    // Assessment writes seen by this server since its last refresh started
+    private long pendingWrites;
+    private boolean refreshing;
+}
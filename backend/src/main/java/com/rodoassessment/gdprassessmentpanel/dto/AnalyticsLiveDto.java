@@ -0,0 +1,41 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsLiveDto {
+    // When the column store was last loaded from the database; later writes are applied as they commit
+    private LocalDateTime loadedAt;
+    private String groupBy;
+    // Assessments matching the user and status filters
+    private long assessmentCount;
+    private long queryMicros;
+    private List<GroupDto> groups = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupDto {
+        // Chapter, area or requirement id; null when grouped by status or overall
+        private Long id;
+        private String name;
+        // Set when grouped by status
+        private String status;
+        // Assessments in the group; null for catalog groups, where an assessment spans several of them
+        private Long assessmentCount;
+        private long answeredCount;
+        // Number of each answer by its label
+        private Map<String, Long> answers = new LinkedHashMap<>();
+        private Integer failurePercent;
+    }
+}
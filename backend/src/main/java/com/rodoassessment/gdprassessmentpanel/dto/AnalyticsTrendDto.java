@@ -0,0 +1,31 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsTrendDto {
+    private AnalyticsFreshnessDto freshness;
+    private String level;
+    private Long id;
+    private String name;
+    private List<PointDto> points = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointDto {
+        // Month the assessments were created in, e.g. 2026-10
+        private String month;
+        private long answeredCount;
+        private long failedCount;
+        private long inProgressCount;
+        private Integer failurePercent;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentPatchRequest {
+    @Valid
+    private List<ResponseChangeDto> responses = new ArrayList<>();
+
+    @Valid
+    private List<AreaScoreChangeDto> areaScores = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResponseChangeDto {
+        @NotNull
+        private Long requirementId;
+
+        @NotNull
+        @Size(max = 50)
+        private String value;
+
+        private String comment;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AreaScoreChangeDto {
+        @NotNull
+        private Long areaId;
+
+        @NotNull
+        @Size(max = 50)
+        private String score;
+
+        private String comment;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentPatchResponse {
+    private Long id;
+    private LocalDateTime updatedAt;
+    private List<AssessmentPatchRequest.ResponseChangeDto> responses = new ArrayList<>();
+    private List<AssessmentPatchRequest.AreaScoreChangeDto> areaScores = new ArrayList<>();
+}
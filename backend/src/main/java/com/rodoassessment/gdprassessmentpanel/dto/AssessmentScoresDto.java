@@ -0,0 +1,45 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Scores are percentages (0-100); null means nothing applicable has been answered yet
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentScoresDto {
+    private Long assessmentId;
+    private Integer score;
+    private String riskLevel;
+    private List<ChapterScoreDto> chapters = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChapterScoreDto {
+        private Long id;
+        private String name;
+        private Integer score;
+        private String riskLevel;
+        private List<AreaScoreDto> areas = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AreaScoreDto {
+        private Long id;
+        private String name;
+        private double weight;
+        private Integer score;
+        private String riskLevel;
+        private Integer complianceScore;
+        private String areaScore;
+        private int answeredCount;
+        private int notApplicableCount;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentVersionCompareDto {
+    private Long assessmentId;
+    private int fromVersion;
+    private int toVersion;
+    private String fromStatus;
+    private String toStatus;
+    // Only the items whose value or comment differ between the two versions
+    private List<DifferenceDto> responses = new ArrayList<>();
+    private List<DifferenceDto> areaScores = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DifferenceDto {
+        private Long id;
+        private String name;
+        private String fromValue;
+        private String toValue;
+        private String fromComment;
+        private String toComment;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentVersionDto {
+    private Long assessmentId;
+    private int version;
+    private String status;
+    private LocalDateTime createdAt;
+    private List<ItemDto> responses = new ArrayList<>();
+    private List<ItemDto> areaScores = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDto {
+        // Requirement id for responses, area id for area scores
+        private Long id;
+        private String name;
+        private String value;
+        private String comment;
+    }
+}
@@ -0,0 +1,29 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentVersionPage {
+    private List<VersionDto> items = new ArrayList<>();
+    private String nextCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VersionDto {
+        private int version;
+        private String status;
+        // Number of responses and area scores changed by this version
+        private int changeCount;
+        private Long userId;
+        private LocalDateTime createdAt;
+    }
+}
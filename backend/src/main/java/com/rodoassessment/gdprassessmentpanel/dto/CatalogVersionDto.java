@@ -0,0 +1,19 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersionDto {
+    private long version;
+    private String fingerprint;
+    private Instant loadedAt;
+    private int chapters;
+    private int areas;
+    private int requirements;
+}
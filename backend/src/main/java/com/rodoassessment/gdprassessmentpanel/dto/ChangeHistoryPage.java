@@ -0,0 +1,35 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeHistoryPage {
+    private List<ChangeDto> items = new ArrayList<>();
+    private String nextCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChangeDto {
+        private Long id;
+        private String type;
+        private Long itemId;
+        // Requirement text or area name from the current catalog
+        private String itemName;
+        private String oldValue;
+        private String newValue;
+        private String oldComment;
+        private String newComment;
+        private Long userId;
+        private String username;
+        private LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDto {
+    private long totalAssessments;
+    // Share of all requirements answered across the assessments, in percent
+    private Integer completionPercent;
+    private List<StatusDto> statuses = new ArrayList<>();
+    private List<AreaHistogramDto> areas = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusDto {
+        private String status;
+        private long assessmentCount;
+        private Integer completionPercent;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AreaHistogramDto {
+        private Long areaId;
+        private String name;
+        private Map<String, Long> scores = new LinkedHashMap<>();
+        private long unscoredCount;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rodoassessment.gdprassessmentpanel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+    private long rowsRead;
+    private long rowsRejected;
+    private int assessmentsImported;
+    private long responsesImported;
+    private long areaScoresImported;
+    // assessment_id from the file -> id of the created assessment
+    private Map<String, Long> assessmentIds = new LinkedHashMap<>();
+    private List<RowErrorDto> errors = new ArrayList<>();
+    // More rows were rejected than the report lists
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDto {
+        // Line of the file where the rejected row starts
+        private long line;
+        private String message;
+    }
+}
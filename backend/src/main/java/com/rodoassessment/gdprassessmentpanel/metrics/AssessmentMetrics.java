@@ -0,0 +1,49 @@
+package com.rodoassessment.gdprassessmentpanel.metrics;
+
+import com.rodoassessment.gdprassessmentpanel.service.AssessmentChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Business counters for assessment writes; only committed changes are counted
+@Component
+public class AssessmentMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter created;
+    private Counter updated;
+    private Counter deleted;
+    private Counter responsesWritten;
+    private Counter areaScoresWritten;
+
+    @PostConstruct
+    public void registerMetrics() {
+        created = Counter.builder("assessments.created").register(meterRegistry);
+        updated = Counter.builder("assessments.updated").register(meterRegistry);
+        deleted = Counter.builder("assessments.deleted").register(meterRegistry);
+        responsesWritten = Counter.builder("assessment.responses.written")
+                .description("Requirement responses and area scores inserted, changed or cleared")
+                .tag("kind", "response")
+                .register(meterRegistry);
+        areaScoresWritten = Counter.builder("assessment.responses.written")
+                .description("Requirement responses and area scores inserted, changed or cleared")
+                .tag("kind", "area_score")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> created.increment();
+            case UPDATED -> updated.increment();
+            case DELETED -> deleted.increment();
+        }
+        responsesWritten.increment(event.getChanges().getResponses().size());
+        areaScoresWritten.increment(event.getChanges().getAreaScores().size());
+    }
+}
@@ -0,0 +1,30 @@
+package com.rodoassessment.gdprassessmentpanel.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Wraps the connection pool so every JDBC statement, whether issued by Hibernate or JdbcTemplate,
+    // passes the statement listener. The pool itself stays reachable through unwrap() for its metrics.
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new StatementListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
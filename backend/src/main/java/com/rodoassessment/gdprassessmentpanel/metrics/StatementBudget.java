@@ -0,0 +1,94 @@
+package com.rodoassessment.gdprassessmentpanel.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Checks the statements of each request against the statement budget and looks for the same statement
+// repeated within the request (N+1). Also keeps the highest statement count seen per endpoint, which
+// integration tests can assert on:
+//
+//     statementBudget.reset();
+//     restTemplate.exchange("/api/assessments/" + id, HttpMethod.GET, request, String.class);
+//     statementBudget.assertAtMost("GET", "/api/assessments/{id}", 4);
+@Component
+public class StatementBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudget.class);
+
+    private static final int LOGGED_SQL_LENGTH = 300;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sql.statement-budget}")
+    private int statementBudget;
+
+    @Value("${app.sql.repeated-statement-threshold}")
+    private int repeatedStatementThreshold;
+
+    private final Map<String, LongAccumulator> maxStatements = new ConcurrentHashMap<>();
+
+    public void check(String method, String uri, StatementStatistics statistics) {
+        String endpoint = endpoint(method, uri);
+        maxStatements.computeIfAbsent(endpoint, k -> new LongAccumulator(Math::max, 0)).accumulate(statistics.getCount());
+
+        if (statistics.getCount() > statementBudget) {
+            Counter.builder("sql.request.budget.exceeded")
+                    .description("Requests that executed more SQL statements than the statement budget")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} executed {} SQL statements, over the budget of {}", endpoint, statistics.getCount(), statementBudget);
+        }
+
+        Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeated();
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatedStatementThreshold) {
+            Counter.builder("sql.request.repeated.statements")
+                    .description("Requests that executed the same SQL statement repeatedly (possible N+1)")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} executed the same SQL statement {} times, possible N+1: {}",
+                    endpoint, mostRepeated.getValue(), abbreviate(mostRepeated.getKey()));
+        }
+    }
+
+    // Highest statement count of a single request to the endpoint since the last reset; -1 if none was made
+    public long getMaxStatements(String method, String uri) {
+        LongAccumulator max = maxStatements.get(endpoint(method, uri));
+        return max == null ? -1 : max.get();
+    }
+
+    public void assertAtMost(String method, String uri, int expectedMax) {
+        long max = getMaxStatements(method, uri);
+        if (max < 0) {
+            throw new AssertionError("No request to " + endpoint(method, uri) + " was recorded");
+        }
+        if (max > expectedMax) {
+            throw new AssertionError(endpoint(method, uri) + " executed " + max
+                    + " SQL statements in one request, expected at most " + expectedMax);
+        }
+    }
+
+    public void reset() {
+        maxStatements.clear();
+    }
+
+    private static String endpoint(String method, String uri) {
+        return method + " " + uri;
+    }
+
+    private static String abbreviate(String sql) {
+        String oneLine = sql.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= LOGGED_SQL_LENGTH ? oneLine : oneLine.substring(0, LOGGED_SQL_LENGTH) + "...";
+    }
+}
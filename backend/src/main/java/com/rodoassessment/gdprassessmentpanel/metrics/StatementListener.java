@@ -0,0 +1,30 @@
+package com.rodoassessment.gdprassessmentpanel.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// Attributes each executed statement (a batch counts once, as one round trip) to the current request.
+// datasource-proxy measures elapsed time in milliseconds only, so the listener times statements itself.
+public class StatementListener implements QueryExecutionListener {
+
+    private static final String STARTED = "statement.started";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (StatementStatistics.current() != null) {
+            execInfo.addCustomValue(STARTED, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementStatistics statistics = StatementStatistics.current();
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (statistics != null && started != null) {
+            statistics.record(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery(), System.nanoTime() - started);
+        }
+    }
+}
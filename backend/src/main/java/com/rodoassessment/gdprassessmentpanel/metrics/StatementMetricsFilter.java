@@ -0,0 +1,65 @@
+package com.rodoassessment.gdprassessmentpanel.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Records the number of SQL statements and the time spent in them per request, tagged like
+// http.server.requests with the method and the URI template. Runs ahead of the security filters,
+// so the user lookup for tokens issued without the user claims counts too.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementStatistics statistics = StatementStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementStatistics.clear();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tags("method", request.getMethod(), "uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100, 200, 500)
+                .register(meterRegistry)
+                .record(statistics.getCount());
+        Timer.builder("sql.request.time")
+                .description("Time spent executing SQL statements per HTTP request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+
+        statementBudget.check(request.getMethod(), uri, statistics);
+    }
+}
@@ -0,0 +1,57 @@
+package com.rodoassessment.gdprassessmentpanel.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// SQL statements executed on the current thread while an HTTP request is handled. Statements run on
+// other threads (background writers, report rendering) are not attributed to any request.
+public class StatementStatistics {
+
+    private static final ThreadLocal<StatementStatistics> CURRENT = new ThreadLocal<>();
+
+    private int count;
+    private long nanos;
+    // Executions per SQL text. Statements bind their parameters, so the text is the shape of the query
+    // and the same text run over and over within one request is the N+1 pattern.
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    public static StatementStatistics start() {
+        StatementStatistics statistics = new StatementStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    // Null when the current thread is not handling a request
+    public static StatementStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    // The statement executed most often, or null when none was executed
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Last refresh of an analytics materialized view. Written in the transaction that refreshes the view,
+// so a reader (including one on a replica) always sees the time its data was computed.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "analytics_refreshes")
+public class AnalyticsRefresh {
+
+    @Id
+    @Column(name = "view_name", length = 63)
+    private String viewName;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private Long durationMs;
+}
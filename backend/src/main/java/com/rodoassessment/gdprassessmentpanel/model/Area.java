@@ -1,9 +1,12 @@
 package com.rodoassessment.gdprassessmentpanel.model;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +15,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.AREA_REGION)
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "areas")
 public class Area {
     
@@ -31,6 +37,10 @@ public class Area {
     @Column(name = "order_number", nullable = false)
     private Integer orderNumber;
     
+    // Relative weight of the area in chapter and overall scores; null counts as 1.0
+    @Column(columnDefinition = "NUMERIC(5,2) DEFAULT 1.0")
+    private Double weight;
+    
     @OneToMany(mappedBy = "area", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Requirement> requirements = new ArrayList<>();
     
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "area_scores")
+@Table(name = "area_scores", uniqueConstraints = @UniqueConstraint(name = "area_scores_assessment_id_area_id_key", columnNames = {"assessment_id", "area_id"}))
 public class AreaScore {
     
     @Id
@@ -26,8 +26,9 @@ public class AreaScore {
     @JoinColumn(name = "area_id", nullable = false)
     private Area area;
     
-    @Column(nullable = false)
-    private String score;
+    @Convert(converter = AreaScoreValueConverter.class)
+    @Column(nullable = false, columnDefinition = "SMALLINT")
+    private AreaScoreValue score;
     
     private String comment;
     
@@ -0,0 +1,66 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+// Auditor's score of an area, stored as a SMALLINT code; the label is what the API and the frontend use.
+// Codes are persisted, so existing ones must never be renumbered.
+public enum AreaScoreValue {
+
+    BLANK(0, "", null),
+    // Same scale as the area status bars in the frontend
+    POZYTYWNA(1, "POZYTYWNA", 100),
+    W_REALIZACJI(2, "W REALIZACJI", 75),
+    ZASTRZEZENIA(3, "ZASTRZEŻENIA", 50),
+    NEGATYWNA(4, "NEGATYWNA", 25),
+    // Excludes the area from chapter and overall scores
+    NIE_DOTYCZY(5, "NIE DOTYCZY", null);
+
+    private static final AreaScoreValue[] BY_CODE = new AreaScoreValue[6];
+
+    static {
+        for (AreaScoreValue value : values()) {
+            BY_CODE[value.code] = value;
+        }
+    }
+
+    private final short code;
+    private final String label;
+    private final Integer points;
+
+    AreaScoreValue(int code, String label, Integer points) {
+        this.code = (short) code;
+        this.label = label;
+        this.points = points;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Score points, or null when the area score does not override the answers
+    public Integer getPoints() {
+        return points;
+    }
+
+    public boolean isScored() {
+        return this != BLANK;
+    }
+
+    public static AreaScoreValue fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown area score code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    public static AreaScoreValue fromLabel(String label) {
+        for (AreaScoreValue value : BY_CODE) {
+            if (value.label.equals(label)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Error: Unknown area score '" + label + "'.");
+    }
+}
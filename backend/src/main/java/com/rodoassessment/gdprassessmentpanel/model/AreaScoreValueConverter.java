@@ -0,0 +1,18 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class AreaScoreValueConverter implements AttributeConverter<AreaScoreValue, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(AreaScoreValue score) {
+        return score == null ? null : score.getCode();
+    }
+
+    @Override
+    public AreaScoreValue convertToEntityAttribute(Short code) {
+        return code == null ? null : AreaScoreValue.fromCode(code);
+    }
+}
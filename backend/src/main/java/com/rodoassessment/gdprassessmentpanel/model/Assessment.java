@@ -13,7 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "assessments")
+@Table(name = "assessments", indexes = @Index(name = "idx_assessments_user_created", columnList = "user_id, created_at, id"))
 public class Assessment {
     
     @Id
@@ -0,0 +1,53 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Append-only change history of assessments, written in batches by ChangeHistoryService.
+// Rows are kept after the assessment is deleted, so there is no foreign key to assessments.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "assessment_events", indexes = @Index(name = "idx_assessment_events_assessment", columnList = "assessment_id, id"))
+public class AssessmentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "assessment_id", nullable = false)
+    private Long assessmentId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // RESPONSE, AREA_SCORE, or CREATED / STATUS / DELETED for the assessment itself
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    // Requirement id for RESPONSE, area id for AREA_SCORE
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "old_value", length = 50)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 50)
+    private String newValue;
+
+    @Column(name = "old_comment", columnDefinition = "TEXT")
+    private String oldComment;
+
+    @Column(name = "new_comment", columnDefinition = "TEXT")
+    private String newComment;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
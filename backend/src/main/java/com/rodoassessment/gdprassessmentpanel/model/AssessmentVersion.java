@@ -0,0 +1,53 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One version of an assessment's answers. Every base_interval-th version stores the full set of
+// responses and area scores (BASE), the ones in between only the items changed since the previous
+// version (DELTA). Written by AssessmentVersionService in the same transaction as the change.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "assessment_versions",
+        uniqueConstraints = @UniqueConstraint(name = "assessment_versions_assessment_id_version_key", columnNames = {"assessment_id", "version"}))
+public class AssessmentVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "assessment_id", nullable = false)
+    private Long assessmentId;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    // Version of the BASE row this version is reconstructed from; equals version for a BASE row
+    @Column(name = "base_version", nullable = false)
+    private Integer baseVersion;
+
+    @Column(nullable = false, length = 10)
+    private String kind;
+
+    @Column(length = 50)
+    private String status;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "change_count", nullable = false)
+    private Integer changeCount;
+
+    // {"r": {requirementId: [value, comment]}, "a": {areaId: [score, comment]}}
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import com.rodoassessment.gdprassessmentpanel.service.CatalogService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CatalogEntityListener {
+
+    @Autowired
+    @Lazy
+    private CatalogService catalogService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCatalogChange(Object entity) {
+        catalogService.catalogChanged();
+    }
+}
@@ -1,9 +1,12 @@
 package com.rodoassessment.gdprassessmentpanel.model;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +15,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CHAPTER_REGION)
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "chapters")
 public class Chapter {
     
@@ -0,0 +1,42 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Dashboard aggregate: number of a user's assessments giving an area a particular score
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(DashboardAreaScoreCount.Key.class)
+@Table(name = "dashboard_area_score_counts")
+public class DashboardAreaScoreCount {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "area_id")
+    private Long areaId;
+
+    @Id
+    @Column(length = 50)
+    private String score;
+
+    @Column(name = "assessment_count", nullable = false)
+    private Long assessmentCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long areaId;
+        private String score;
+    }
+}
@@ -0,0 +1,41 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Dashboard aggregate: number of assessments and answered requirements per user and status.
+// Maintained by DashboardAggregateService in the same transaction as the assessment writes.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(DashboardStatusCount.Key.class)
+@Table(name = "dashboard_status_counts")
+public class DashboardStatusCount {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(length = 50)
+    private String status;
+
+    @Column(name = "assessment_count", nullable = false)
+    private Long assessmentCount;
+
+    @Column(name = "answered_count", nullable = false)
+    private Long answeredCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String status;
+    }
+}
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "responses")
+@Table(name = "responses", uniqueConstraints = @UniqueConstraint(name = "responses_assessment_id_requirement_id_key", columnNames = {"assessment_id", "requirement_id"}))
 public class Response {
     
     @Id
@@ -26,8 +26,9 @@ public class Response {
     @JoinColumn(name = "requirement_id", nullable = false)
     private Requirement requirement;
     
-    @Column(nullable = false)
-    private String value;
+    @Convert(converter = ResponseValueConverter.class)
+    @Column(nullable = false, columnDefinition = "SMALLINT")
+    private ResponseValue value;
     
     private String comment;
     
@@ -0,0 +1,64 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+// Answer to a requirement, stored as a SMALLINT code; the label is what the API and the frontend use.
+// Codes are persisted, so existing ones must never be renumbered.
+public enum ResponseValue {
+
+    BLANK(0, "", null),
+    TAK(1, "TAK", 100),
+    NIE(2, "NIE", 0),
+    W_REALIZACJI(3, "W REALIZACJI", 50),
+    // Answered, but does not count towards the compliance score
+    ND(4, "ND", null);
+
+    private static final ResponseValue[] BY_CODE = new ResponseValue[5];
+
+    static {
+        for (ResponseValue value : values()) {
+            BY_CODE[value.code] = value;
+        }
+    }
+
+    private final short code;
+    private final String label;
+    private final Integer points;
+
+    ResponseValue(int code, String label, Integer points) {
+        this.code = (short) code;
+        this.label = label;
+        this.points = points;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Compliance points, or null when the answer is not scored
+    public Integer getPoints() {
+        return points;
+    }
+
+    public boolean isAnswered() {
+        return this != BLANK;
+    }
+
+    public static ResponseValue fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown response value code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    public static ResponseValue fromLabel(String label) {
+        for (ResponseValue value : BY_CODE) {
+            if (value.label.equals(label)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Error: Unknown response value '" + label + "'.");
+    }
+}
@@ -0,0 +1,18 @@
+package com.rodoassessment.gdprassessmentpanel.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class ResponseValueConverter implements AttributeConverter<ResponseValue, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(ResponseValue value) {
+        return value == null ? null : value.getCode();
+    }
+
+    @Override
+    public ResponseValue convertToEntityAttribute(Short code) {
+        return code == null ? null : ResponseValue.fromCode(code);
+    }
+}
@@ -1,14 +1,19 @@
 package com.rodoassessment.gdprassessmentpanel.model;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLE_REGION)
 @Table(name = "roles")
 public class Role {
     
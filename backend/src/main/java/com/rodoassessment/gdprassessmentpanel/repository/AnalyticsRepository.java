@@ -0,0 +1,165 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Materialized views with answer counts across all assessments, and the record of their last refresh.
+// The views are created by the backend because the schema is otherwise generated from the entities.
+// Each view selects from a SQL function: PostgreSQL does not track the columns used in a function body,
+// whereas a view reading the tables directly would make every ALTER COLUMN of Hibernate's schema update
+// fail. The functions are replaced on every start, so a changed query takes effect with the next refresh;
+// only a change of the returned columns needs the view dropped. Each view has a unique index, which
+// REFRESH MATERIALIZED VIEW CONCURRENTLY requires to keep it readable while refreshing.
+@Repository
+public class AnalyticsRepository {
+
+    public static final String REQUIREMENT_STATS = "analytics_requirement_stats";
+    public static final String REQUIREMENT_TREND = "analytics_requirement_trend";
+
+    private static final String COUNT_COLUMNS =
+            "positive_count BIGINT, failed_count BIGINT, in_progress_count BIGINT, not_applicable_count BIGINT";
+
+    private static final String COUNTS =
+            "count(*) FILTER (WHERE r.value = " + ResponseValue.TAK.getCode() + "), " +
+            "count(*) FILTER (WHERE r.value = " + ResponseValue.NIE.getCode() + "), " +
+            "count(*) FILTER (WHERE r.value = " + ResponseValue.W_REALIZACJI.getCode() + "), " +
+            "count(*) FILTER (WHERE r.value = " + ResponseValue.ND.getCode() + ") ";
+
+    private static final String REQUIREMENT_STATS_FUNCTION =
+            "CREATE OR REPLACE FUNCTION " + REQUIREMENT_STATS + "_rows() " +
+            "RETURNS TABLE (requirement_id BIGINT, " + COUNT_COLUMNS + ") LANGUAGE sql STABLE AS $$ " +
+            "SELECT r.requirement_id::bigint, " + COUNTS +
+            "FROM responses r WHERE r.value <> " + ResponseValue.BLANK.getCode() + " " +
+            "GROUP BY r.requirement_id $$";
+
+    // Answers by the month their assessment was created in
+    private static final String REQUIREMENT_TREND_FUNCTION =
+            "CREATE OR REPLACE FUNCTION " + REQUIREMENT_TREND + "_rows() " +
+            "RETURNS TABLE (month DATE, requirement_id BIGINT, " + COUNT_COLUMNS + ") LANGUAGE sql STABLE AS $$ " +
+            "SELECT date_trunc('month', a.created_at)::date, r.requirement_id::bigint, " + COUNTS +
+            "FROM responses r JOIN assessments a ON a.id = r.assessment_id " +
+            "WHERE r.value <> " + ResponseValue.BLANK.getCode() + " AND a.created_at IS NOT NULL " +
+            "GROUP BY 1, 2 $$";
+
+    // Arbitrary key of the advisory lock that lets one instance at a time create or refresh the views
+    private static final long LOCK_KEY = 0x616e616c79746963L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Waits for another instance that is creating the views, so both do not try to create them
+    public void lock() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, LOCK_KEY);
+    }
+
+    // False when another instance is refreshing the views right now
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    // Creates the views that do not exist yet, without data; returns the names of the created ones
+    public List<String> createMissingViews() {
+        jdbcTemplate.execute(REQUIREMENT_STATS_FUNCTION);
+        jdbcTemplate.execute(REQUIREMENT_TREND_FUNCTION);
+        List<String> created = new ArrayList<>();
+        if (createView(REQUIREMENT_STATS, "requirement_id")) {
+            created.add(REQUIREMENT_STATS);
+        }
+        if (createView(REQUIREMENT_TREND, "month, requirement_id")) {
+            created.add(REQUIREMENT_TREND);
+        }
+        return created;
+    }
+
+    public boolean isPopulated(String view) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT ispopulated FROM pg_matviews WHERE schemaname = current_schema() AND matviewname = ?", Boolean.class, view));
+    }
+
+    // A view that was never populated cannot be refreshed concurrently; that first refresh blocks its readers
+    public void refresh(String view, boolean concurrently) {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW " + (concurrently ? "CONCURRENTLY " : "") + view);
+    }
+
+    public void recordRefresh(String view, LocalDateTime refreshedAt, long durationMs) {
+        jdbcTemplate.update("INSERT INTO analytics_refreshes (view_name, refreshed_at, duration_ms) VALUES (?, ?, ?) " +
+                "ON CONFLICT (view_name) DO UPDATE SET refreshed_at = EXCLUDED.refreshed_at, duration_ms = EXCLUDED.duration_ms",
+                view, Timestamp.valueOf(refreshedAt), durationMs);
+    }
+
+    // Null when the view has not been populated yet
+    public RefreshInfo findRefresh(String view) {
+        List<RefreshInfo> rows = jdbcTemplate.query(
+                "SELECT refreshed_at, duration_ms FROM analytics_refreshes WHERE view_name = ?",
+                (rs, rowNum) -> new RefreshInfo(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)), view);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public List<RequirementCounts> findRequirementStats() {
+        return jdbcTemplate.query("SELECT NULL::date AS month, * FROM " + REQUIREMENT_STATS, COUNTS_MAPPER);
+    }
+
+    // Months are the first day of the month; both bounds are optional and inclusive
+    public List<RequirementCounts> findRequirementTrend(LocalDate fromMonth, LocalDate toMonth) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM " + REQUIREMENT_TREND + " WHERE 1 = 1 ");
+        List<Object> args = new ArrayList<>();
+        if (fromMonth != null) {
+            sql.append("AND month >= ? ");
+            args.add(Date.valueOf(fromMonth));
+        }
+        if (toMonth != null) {
+            sql.append("AND month <= ? ");
+            args.add(Date.valueOf(toMonth));
+        }
+        sql.append("ORDER BY month");
+        return jdbcTemplate.query(sql.toString(), COUNTS_MAPPER, args.toArray());
+    }
+
+    private boolean createView(String view, String key) {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_matviews WHERE schemaname = current_schema() AND matviewname = ?)",
+                Boolean.class, view))) {
+            return false;
+        }
+        jdbcTemplate.execute("CREATE MATERIALIZED VIEW " + view + " AS SELECT * FROM " + view + "_rows() WITH NO DATA");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX " + view + "_key ON " + view + " (" + key + ")");
+        // A new view has no data yet, whatever an earlier one recorded
+        jdbcTemplate.update("DELETE FROM analytics_refreshes WHERE view_name = ?", view);
+        return true;
+    }
+
+    private static final RowMapper<RequirementCounts> COUNTS_MAPPER = (rs, rowNum) -> {
+        Date month = rs.getDate("month");
+        return new RequirementCounts(month == null ? null : month.toLocalDate(), rs.getLong("requirement_id"),
+                rs.getLong("positive_count"), rs.getLong("failed_count"), rs.getLong("in_progress_count"),
+                rs.getLong("not_applicable_count"));
+    };
+
+    @Value
+    public static class RefreshInfo {
+        LocalDateTime refreshedAt;
+        long durationMs;
+    }
+
+    @Value
+    public static class RequirementCounts {
+        // Null for the totals over all months
+        LocalDate month;
+        Long requirementId;
+        long positive;
+        long failed;
+        long inProgress;
+        long notApplicable;
+    }
+}
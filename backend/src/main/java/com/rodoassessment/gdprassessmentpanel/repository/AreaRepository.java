@@ -1,8 +1,13 @@
 package com.rodoassessment.gdprassessmentpanel.repository;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import com.rodoassessment.gdprassessmentpanel.model.Area;
 import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +17,16 @@ public interface AreaRepository extends JpaRepository<Area, Long> {
     
     List<Area> findByChapter(Chapter chapter);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.CATALOG_QUERY_REGION)
+    })
     List<Area> findByChapterOrderByOrderNumberAsc(Chapter chapter);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.CATALOG_QUERY_REGION)
+    })
+    @Query("select a from Area a join fetch a.chapter c order by c.orderNumber asc, a.orderNumber asc")
+    List<Area> findAllWithChapterOrdered();
 }
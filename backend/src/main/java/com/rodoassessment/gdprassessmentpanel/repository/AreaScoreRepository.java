@@ -2,10 +2,14 @@ package com.rodoassessment.gdprassessmentpanel.repository;
 
 import com.rodoassessment.gdprassessmentpanel.model.Area;
 import com.rodoassessment.gdprassessmentpanel.model.AreaScore;
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
 import com.rodoassessment.gdprassessmentpanel.model.Assessment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +22,16 @@ public interface AreaScoreRepository extends JpaRepository<AreaScore, Long> {
     
     Optional<AreaScore> findByAssessmentIdAndAreaId(Long assessmentId, Long areaId);
     
-    List<AreaScore> findByScore(String score);
+    List<AreaScore> findByScore(AreaScoreValue score);
+    
+    @Query("select s.assessment.id as assessmentId, s.area.id as areaId, s.score as score, s.comment as comment " +
+           "from AreaScore s where s.assessment.id in :assessmentIds")
+    List<ScoreView> findScoresByAssessmentIds(@Param("assessmentIds") Collection<Long> assessmentIds);
+    
+    interface ScoreView {
+        Long getAssessmentId();
+        Long getAreaId();
+        AreaScoreValue getScore();
+        String getComment();
+    }
 }
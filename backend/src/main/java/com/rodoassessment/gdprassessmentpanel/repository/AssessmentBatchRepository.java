@@ -0,0 +1,103 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import com.rodoassessment.gdprassessmentpanel.service.ValueChange;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Set-based JDBC access to responses and area_scores used by the write path. All statements
+// take part in the surrounding JPA transaction. Values are passed in and out as API labels and
+// stored as their SMALLINT codes.
+@Repository
+public class AssessmentBatchRepository {
+
+    private static final String UPSERT_RESPONSE =
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (assessment_id, requirement_id) DO UPDATE " +
+            "SET value = EXCLUDED.value, comment = EXCLUDED.comment, updated_at = EXCLUDED.updated_at";
+
+    private static final String UPSERT_AREA_SCORE =
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (assessment_id, area_id) DO UPDATE " +
+            "SET score = EXCLUDED.score, comment = EXCLUDED.comment, updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // NO KEY UPDATE does not block foreign key checks of rows that reference the assessment
+    public void lockAssessment(Long assessmentId) {
+        jdbcTemplate.queryForList("SELECT id FROM assessments WHERE id = ? FOR NO KEY UPDATE", Long.class, assessmentId);
+    }
+
+    // Locks the current rows of the given items so concurrent writers see consistent old values
+    public Map<Long, StoredValue> lockResponses(Long assessmentId, Collection<Long> requirementIds) {
+        return lock("SELECT requirement_id, value, comment FROM responses " +
+                "WHERE assessment_id = ? AND requirement_id = ANY (?) FOR UPDATE", assessmentId, requirementIds,
+                code -> ResponseValue.fromCode(code).getLabel());
+    }
+
+    public Map<Long, StoredValue> lockAreaScores(Long assessmentId, Collection<Long> areaIds) {
+        return lock("SELECT area_id, score, comment FROM area_scores " +
+                "WHERE assessment_id = ? AND area_id = ANY (?) FOR UPDATE", assessmentId, areaIds,
+                code -> AreaScoreValue.fromCode(code).getLabel());
+    }
+
+    public void upsertResponses(Long assessmentId, List<ValueChange> changes, LocalDateTime now) {
+        upsert(UPSERT_RESPONSE, assessmentId, changes, now, label -> ResponseValue.fromLabel(label).getCode());
+    }
+
+    public void upsertAreaScores(Long assessmentId, List<ValueChange> changes, LocalDateTime now) {
+        upsert(UPSERT_AREA_SCORE, assessmentId, changes, now, label -> AreaScoreValue.fromLabel(label).getCode());
+    }
+
+    private Map<Long, StoredValue> lock(String sql, Long assessmentId, Collection<Long> ids, Function<Short, String> decode) {
+        Map<Long, StoredValue> current = new HashMap<>();
+        if (ids.isEmpty()) {
+            return current;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setLong(1, assessmentId);
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> current.put(rs.getLong(1), new StoredValue(decode.apply(rs.getShort(2)), rs.getString(3))));
+        return current;
+    }
+
+    private void upsert(String sql, Long assessmentId, List<ValueChange> changes, LocalDateTime now,
+                        Function<String, Short> encode) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(sql, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, assessmentId);
+            ps.setLong(2, change.getItemId());
+            ps.setShort(3, encode.apply(change.getNewValue()));
+            ps.setString(4, change.getNewComment());
+            ps.setTimestamp(5, timestamp);
+            ps.setTimestamp(6, timestamp);
+        });
+    }
+
+    @Value
+    public static class StoredValue {
+        String value;
+        String comment;
+    }
+}
@@ -0,0 +1,133 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// JDBC access to the append-only assessment_events table: batch inserts for the history writer and
+// keyset-paginated reads over assessment_events(assessment_id, id), newest first
+@Repository
+public class AssessmentEventRepository {
+
+    private static final String INSERT =
+            "INSERT INTO assessment_events (assessment_id, user_id, event_type, item_id, old_value, new_value, " +
+            "old_comment, new_comment, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT =
+            "SELECT e.id, e.user_id, u.username, e.event_type, e.item_id, e.old_value, e.new_value, " +
+            "e.old_comment, e.new_comment, e.created_at " +
+            "FROM assessment_events e LEFT JOIN users u ON u.id = e.user_id " +
+            "WHERE e.assessment_id = ? ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insert(List<Entry> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getAssessmentId());
+            setLong(ps, 2, entry.getUserId());
+            ps.setString(3, entry.getEventType());
+            setLong(ps, 4, entry.getItemId());
+            ps.setString(5, entry.getOldValue());
+            ps.setString(6, entry.getNewValue());
+            ps.setString(7, entry.getOldComment());
+            ps.setString(8, entry.getNewComment());
+            ps.setTimestamp(9, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+    }
+
+    public List<StoredEntry> findPage(Long assessmentId, Filter filter, Long beforeId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(assessmentId);
+        if (beforeId != null) {
+            sql.append("AND e.id < ? ");
+            args.add(beforeId);
+        }
+        if (filter.getEventType() != null) {
+            sql.append("AND e.event_type = ? ");
+            args.add(filter.getEventType());
+        }
+        if (filter.getItemId() != null) {
+            sql.append("AND e.item_id = ? ");
+            args.add(filter.getItemId());
+        }
+        if (filter.getFrom() != null) {
+            sql.append("AND e.created_at >= ? ");
+            args.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append("AND e.created_at < ? ");
+            args.add(Timestamp.valueOf(filter.getTo()));
+        }
+        sql.append("ORDER BY e.id DESC LIMIT ?");
+        args.add(limit);
+
+        RowMapper<StoredEntry> mapper = (rs, rowNum) -> new StoredEntry(
+                rs.getLong("id"),
+                rs.getObject("user_id", Long.class),
+                rs.getString("username"),
+                rs.getString("event_type"),
+                rs.getObject("item_id", Long.class),
+                rs.getString("old_value"),
+                rs.getString("new_value"),
+                rs.getString("old_comment"),
+                rs.getString("new_comment"),
+                rs.getTimestamp("created_at").toLocalDateTime());
+        return jdbcTemplate.query(sql.toString(), mapper, args.toArray());
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    @Value
+    public static class Entry {
+        Long assessmentId;
+        Long userId;
+        String eventType;
+        Long itemId;
+        String oldValue;
+        String newValue;
+        String oldComment;
+        String newComment;
+        LocalDateTime createdAt;
+    }
+
+    @Value
+    public static class StoredEntry {
+        Long id;
+        Long userId;
+        String username;
+        String eventType;
+        Long itemId;
+        String oldValue;
+        String newValue;
+        String oldComment;
+        String newComment;
+        LocalDateTime createdAt;
+    }
+
+    // Null fields are not filtered on
+    @Value
+    public static class Filter {
+        String eventType;
+        Long itemId;
+        LocalDateTime from;
+        LocalDateTime to;
+    }
+}
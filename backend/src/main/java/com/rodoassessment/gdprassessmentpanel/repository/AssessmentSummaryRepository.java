@@ -0,0 +1,50 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentSummaryDto;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Dashboard list rows: one keyset-paginated query over assessments(user_id, created_at, id) with the
+// number of answered requirements counted in the database instead of loading Response entities
+@Repository
+public class AssessmentSummaryRepository {
+
+    private static final String SELECT =
+            "SELECT a.id, a.name, a.status, a.created_at, a.updated_at, " +
+            "(SELECT count(*) FROM responses r WHERE r.assessment_id = a.id AND r.value <> " + ResponseValue.BLANK.getCode() + ") AS answered " +
+            "FROM assessments a WHERE a.user_id = ? ";
+
+    private static final String ORDER = "ORDER BY a.created_at DESC, a.id DESC LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<AssessmentSummaryDto> findPage(Long userId, LocalDateTime afterCreatedAt, Long afterId,
+                                               int limit, int totalCount) {
+        RowMapper<AssessmentSummaryDto> mapper = (rs, rowNum) -> new AssessmentSummaryDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("status"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getInt("answered"),
+                totalCount);
+
+        if (afterCreatedAt == null) {
+            return jdbcTemplate.query(SELECT + ORDER, mapper, userId, limit);
+        }
+        return jdbcTemplate.query(SELECT + "AND (a.created_at, a.id) < (?, ?) " + ORDER, mapper,
+                userId, Timestamp.valueOf(afterCreatedAt), afterId, limit);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
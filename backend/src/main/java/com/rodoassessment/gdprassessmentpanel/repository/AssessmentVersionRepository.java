@@ -0,0 +1,134 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// JDBC access to assessment_versions. Every read is an index range over (assessment_id, version).
+@Repository
+public class AssessmentVersionRepository {
+
+    private static final String COLUMNS =
+            "version, base_version, kind, status, user_id, change_count, created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public VersionInfo findLatest(Long assessmentId) {
+        List<VersionInfo> rows = findPage(assessmentId, null, 1);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public void insert(Long assessmentId, VersionInfo info, String payload) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO assessment_versions (assessment_id, version, base_version, kind, status, user_id, " +
+                    "change_count, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            ps.setLong(1, assessmentId);
+            ps.setInt(2, info.getVersion());
+            ps.setInt(3, info.getBaseVersion());
+            ps.setString(4, info.getKind());
+            ps.setString(5, info.getStatus());
+            if (info.getUserId() == null) {
+                ps.setNull(6, Types.BIGINT);
+            } else {
+                ps.setLong(6, info.getUserId());
+            }
+            ps.setInt(7, info.getChangeCount());
+            ps.setString(8, payload);
+            ps.setTimestamp(9, Timestamp.valueOf(info.getCreatedAt()));
+            return ps;
+        });
+    }
+
+    public void deleteAll(Long assessmentId) {
+        jdbcTemplate.update("DELETE FROM assessment_versions WHERE assessment_id = ?", assessmentId);
+    }
+
+    public VersionInfo findVersion(Long assessmentId, int version) {
+        List<VersionInfo> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM assessment_versions " +
+                "WHERE assessment_id = ? AND version = ?", VERSION_INFO, assessmentId, version);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Latest version created at or before the given time
+    public VersionInfo findVersionAt(Long assessmentId, LocalDateTime at) {
+        List<VersionInfo> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM assessment_versions " +
+                "WHERE assessment_id = ? AND created_at <= ? ORDER BY version DESC LIMIT 1",
+                VERSION_INFO, assessmentId, Timestamp.valueOf(at));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public List<VersionInfo> findPage(Long assessmentId, Integer beforeVersion, int limit) {
+        if (beforeVersion == null) {
+            return jdbcTemplate.query("SELECT " + COLUMNS + " FROM assessment_versions WHERE assessment_id = ? " +
+                    "ORDER BY version DESC LIMIT ?", VERSION_INFO, assessmentId, limit);
+        }
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM assessment_versions WHERE assessment_id = ? " +
+                "AND version < ? ORDER BY version DESC LIMIT ?", VERSION_INFO, assessmentId, beforeVersion, limit);
+    }
+
+    // Payloads of the base of the given version and of all deltas up to it, oldest first
+    public List<String> findChain(Long assessmentId, int baseVersion, int version) {
+        return jdbcTemplate.queryForList("SELECT payload FROM assessment_versions " +
+                "WHERE assessment_id = ? AND version BETWEEN ? AND ? ORDER BY version",
+                String.class, assessmentId, baseVersion, version);
+    }
+
+    // Current answers of the assessment, including those written earlier in this transaction. Values are
+    // decoded to the labels the deltas record; blank items are skipped unless they have a comment.
+    public void readResponses(Long assessmentId, Map<Long, List<String>> target) {
+        read("SELECT requirement_id, value, comment FROM responses WHERE assessment_id = ? " +
+                "AND (value <> " + ResponseValue.BLANK.getCode() + " OR comment <> '')", assessmentId, target,
+                code -> ResponseValue.fromCode(code).getLabel());
+    }
+
+    public void readAreaScores(Long assessmentId, Map<Long, List<String>> target) {
+        read("SELECT area_id, score, comment FROM area_scores WHERE assessment_id = ? " +
+                "AND (score <> " + AreaScoreValue.BLANK.getCode() + " OR comment <> '')", assessmentId, target,
+                code -> AreaScoreValue.fromCode(code).getLabel());
+    }
+
+    private void read(String sql, Long assessmentId, Map<Long, List<String>> target, Function<Short, String> decode) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            List<String> value = new ArrayList<>(2);
+            value.add(decode.apply(rs.getShort(2)));
+            value.add(rs.getString(3));
+            target.put(rs.getLong(1), value);
+        }, assessmentId);
+    }
+
+    private static final RowMapper<VersionInfo> VERSION_INFO = (rs, rowNum) -> new VersionInfo(
+            rs.getInt("version"),
+            rs.getInt("base_version"),
+            rs.getString("kind"),
+            rs.getString("status"),
+            rs.getObject("user_id", Long.class),
+            rs.getInt("change_count"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    @Value
+    public static class VersionInfo {
+        int version;
+        int baseVersion;
+        String kind;
+        String status;
+        Long userId;
+        int changeCount;
+        LocalDateTime createdAt;
+    }
+}
@@ -1,7 +1,11 @@
 package com.rodoassessment.gdprassessmentpanel.repository;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +13,9 @@ import java.util.List;
 @Repository
 public interface ChapterRepository extends JpaRepository<Chapter, Long> {
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.CATALOG_QUERY_REGION)
+    })
     List<Chapter> findAllByOrderByOrderNumberAsc();
 }
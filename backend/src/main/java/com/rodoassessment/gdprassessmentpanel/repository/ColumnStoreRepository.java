@@ -0,0 +1,47 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Streams assessments and answers for loading the in-memory column store. Like the export, the rows come
+// through a cursor, which the PostgreSQL driver only uses inside a transaction.
+@Repository
+public class ColumnStoreRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void streamAssessments(int fetchSize, AssessmentHandler handler) {
+        stream("SELECT id, user_id, status FROM assessments", fetchSize,
+                rs -> handler.handle(rs.getLong(1), rs.getLong(2), rs.getString(3)));
+    }
+
+    // Blank answers are left out; the store does not keep them
+    public void streamResponses(int fetchSize, ResponseHandler handler) {
+        stream("SELECT assessment_id, requirement_id, value FROM responses WHERE value <> " + ResponseValue.BLANK.getCode(),
+                fetchSize, rs -> handler.handle(rs.getLong(1), rs.getLong(2), rs.getShort(3)));
+    }
+
+    private void stream(String sql, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+    }
+
+    public interface AssessmentHandler {
+        void handle(long assessmentId, long userId, String status) throws SQLException;
+    }
+
+    public interface ResponseHandler {
+        void handle(long assessmentId, long requirementId, short code) throws SQLException;
+    }
+}
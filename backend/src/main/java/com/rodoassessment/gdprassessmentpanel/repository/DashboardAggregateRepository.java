@@ -0,0 +1,130 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+// JDBC access to dashboard_status_counts and dashboard_area_score_counts. Deltas are applied as
+// additive upserts, so concurrent writers of the same user only serialize on the rows they touch.
+@Repository
+public class DashboardAggregateRepository {
+
+    private static final String ADD_STATUS_COUNT =
+            "INSERT INTO dashboard_status_counts (user_id, status, assessment_count, answered_count) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, status) DO UPDATE " +
+            "SET assessment_count = dashboard_status_counts.assessment_count + EXCLUDED.assessment_count, " +
+            "answered_count = dashboard_status_counts.answered_count + EXCLUDED.answered_count";
+
+    private static final String ADD_AREA_SCORE_COUNT =
+            "INSERT INTO dashboard_area_score_counts (user_id, area_id, score, assessment_count) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, area_id, score) DO UPDATE " +
+            "SET assessment_count = dashboard_area_score_counts.assessment_count + EXCLUDED.assessment_count";
+
+    private static final String REBUILD_STATUS_COUNTS =
+            "INSERT INTO dashboard_status_counts (user_id, status, assessment_count, answered_count) " +
+            "SELECT a.user_id, a.status, count(*), coalesce(sum(r.answered), 0) FROM assessments a " +
+            "LEFT JOIN (SELECT assessment_id, count(*) AS answered FROM responses WHERE value <> " + ResponseValue.BLANK.getCode() + " " +
+            "GROUP BY assessment_id) r ON r.assessment_id = a.id " +
+            "GROUP BY a.user_id, a.status";
+
+    private static final String REBUILD_AREA_SCORE_COUNTS =
+            "INSERT INTO dashboard_area_score_counts (user_id, area_id, score, assessment_count) " +
+            "SELECT a.user_id, s.area_id, s.score, count(*) FROM area_scores s " +
+            "JOIN assessments a ON a.id = s.assessment_id WHERE s.score <> " + AreaScoreValue.BLANK.getCode() + " " +
+            "GROUP BY a.user_id, s.area_id, s.score";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void addStatusCount(Long userId, String status, long assessmentDelta, long answeredDelta) {
+        jdbcTemplate.update(ADD_STATUS_COUNT, userId, status, assessmentDelta, answeredDelta);
+    }
+
+    // Deltas should be sorted by area and score, so concurrent writers lock rows in the same order
+    public void addAreaScoreCounts(Long userId, List<AreaScoreCount> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_AREA_SCORE_COUNT, deltas, deltas.size(), (PreparedStatement ps, AreaScoreCount delta) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, delta.getAreaId());
+            ps.setShort(3, AreaScoreValue.fromLabel(delta.getScore()).getCode());
+            ps.setLong(4, delta.getCount());
+        });
+    }
+
+    public long countAnswered(Long assessmentId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM responses WHERE assessment_id = ? AND value <> " + ResponseValue.BLANK.getCode(),
+                Long.class, assessmentId);
+        return count == null ? 0 : count;
+    }
+
+    public List<AreaScoreCount> findAreaScores(Long assessmentId) {
+        return jdbcTemplate.query(
+                "SELECT area_id, score FROM area_scores WHERE assessment_id = ? AND score <> " + AreaScoreValue.BLANK.getCode(),
+                (rs, rowNum) -> new AreaScoreCount(rs.getLong("area_id"), label(rs.getShort("score")), 1), assessmentId);
+    }
+
+    // userId == null aggregates over all users
+    public List<StatusCount> findStatusCounts(Long userId) {
+        String sql = "SELECT status, sum(assessment_count) AS assessments, sum(answered_count) AS answered " +
+                "FROM dashboard_status_counts " + (userId == null ? "" : "WHERE user_id = ? ") +
+                "GROUP BY status HAVING sum(assessment_count) <> 0 ORDER BY status";
+        Object[] args = userId == null ? new Object[0] : new Object[] {userId};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new StatusCount(
+                rs.getString("status"), rs.getLong("assessments"), rs.getLong("answered")), args);
+    }
+
+    public List<AreaScoreCount> findAreaScoreCounts(Long userId) {
+        String sql = "SELECT area_id, score, sum(assessment_count) AS assessments FROM dashboard_area_score_counts " +
+                (userId == null ? "" : "WHERE user_id = ? ") +
+                "GROUP BY area_id, score HAVING sum(assessment_count) <> 0 ORDER BY area_id, score";
+        Object[] args = userId == null ? new Object[0] : new Object[] {userId};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new AreaScoreCount(
+                rs.getLong("area_id"), label(rs.getShort("score")), rs.getLong("assessments")), args);
+    }
+
+    private static String label(short score) {
+        return AreaScoreValue.fromCode(score).getLabel();
+    }
+
+    // True when assessments exist but no aggregates were recorded yet, e.g. right after an upgrade
+    public boolean needsRebuild() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM dashboard_status_counts) AND EXISTS (SELECT 1 FROM assessments)",
+                Boolean.class));
+    }
+
+    // Recomputes both tables from the base tables. The exclusive lock waits for writers that already
+    // applied deltas and holds back new ones until the rebuilt counts are committed.
+    public void rebuild() {
+        jdbcTemplate.execute("LOCK TABLE dashboard_status_counts, dashboard_area_score_counts IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM dashboard_status_counts");
+        jdbcTemplate.update("DELETE FROM dashboard_area_score_counts");
+        jdbcTemplate.update(REBUILD_STATUS_COUNTS);
+        jdbcTemplate.update(REBUILD_AREA_SCORE_COUNTS);
+    }
+
+    @Value
+    public static class StatusCount {
+        String status;
+        long assessmentCount;
+        long answeredCount;
+    }
+
+    @Value
+    public static class AreaScoreCount {
+        Long areaId;
+        String score;
+        long count;
+    }
+}
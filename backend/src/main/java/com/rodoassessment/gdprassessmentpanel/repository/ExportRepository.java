@@ -0,0 +1,126 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams assessment rows for export through a forward-only cursor. The PostgreSQL driver only honours
+// the fetch size inside a transaction, so callers must run stream() in one. Rows come in assessment id
+// order from an index scan joined laterally to each assessment's rows, so no sort of the whole result
+// is needed and the first rows arrive while the rest is still being read. An assessment without responses
+// and area scores still gets one row, with only the assessment columns set.
+@Repository
+public class ExportRepository {
+
+    private static final String SELECT =
+            "SELECT a.id, a.name, a.description, a.status, a.user_id, a.created_at, a.updated_at, " +
+            "x.kind, x.area_id, x.requirement_id, x.value, x.comment, x.updated_at AS row_updated_at " +
+            "FROM assessments a " +
+            "LEFT JOIN LATERAL (" +
+            "SELECT 'RESPONSE' AS kind, q.area_id, r.requirement_id, r.value, r.comment, r.updated_at " +
+            "FROM responses r JOIN requirements q ON q.id = r.requirement_id WHERE r.assessment_id = a.id " +
+            "UNION ALL " +
+            "SELECT 'AREA_SCORE', s.area_id, NULL, s.score, s.comment, s.updated_at " +
+            "FROM area_scores s WHERE s.assessment_id = a.id) x ON true ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void stream(Filter filter, int fetchSize, RowHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT).append("WHERE 1 = 1 ");
+        List<Object> args = new ArrayList<>();
+        if (filter.getUserId() != null) {
+            sql.append("AND a.user_id = ? ");
+            args.add(filter.getUserId());
+        }
+        if (filter.getStatus() != null) {
+            sql.append("AND a.status = ? ");
+            args.add(filter.getStatus());
+        }
+        if (filter.getCreatedFrom() != null) {
+            sql.append("AND a.created_at >= ? ");
+            args.add(Timestamp.valueOf(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            sql.append("AND a.created_at < ? ");
+            args.add(Timestamp.valueOf(filter.getCreatedTo()));
+        }
+        sql.append("ORDER BY a.id");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.handle(new ExportRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getString("status"),
+                rs.getLong("user_id"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getString("kind"),
+                rs.getObject("area_id", Long.class),
+                rs.getObject("requirement_id", Long.class),
+                label(rs.getString("kind"), rs.getShort("value")),
+                rs.getString("comment"),
+                toLocalDateTime(rs.getTimestamp("row_updated_at")))));
+    }
+
+    private static String label(String kind, short code) {
+        if (kind == null) {
+            return null;
+        }
+        return "RESPONSE".equals(kind) ? ResponseValue.fromCode(code).getLabel() : AreaScoreValue.fromCode(code).getLabel();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    public interface RowHandler {
+        void handle(ExportRow row) throws SQLException;
+    }
+
+    @Value
+    public static class Filter {
+        // null exports the assessments of all users
+        Long userId;
+        String status;
+        LocalDateTime createdFrom;
+        LocalDateTime createdTo;
+    }
+
+    @Value
+    public static class ExportRow {
+        Long assessmentId;
+        String assessmentName;
+        String description;
+        String status;
+        Long userId;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        // RESPONSE or AREA_SCORE; null on the single row of an assessment without any
+        String kind;
+        Long areaId;
+        Long requirementId;
+        String value;
+        String comment;
+        LocalDateTime rowUpdatedAt;
+    }
+}
@@ -0,0 +1,164 @@
+package com.rodoassessment.gdprassessmentpanel.repository;
+
+import lombok.Value;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bulk import through temporary staging tables. Rows are streamed in with COPY and moved into
+// assessments, responses and area_scores by a single set-based statement. Everything, including the
+// staging tables, lives in the surrounding transaction, so callers must run all methods in one.
+@Repository
+public class ImportRepository {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Answer kinds in import_answers
+    public static final String RESPONSE = "R";
+    public static final String AREA_SCORE = "S";
+
+    private static final String CREATE_ASSESSMENTS =
+            "CREATE TEMP TABLE import_assessments (" +
+            "source_key TEXT PRIMARY KEY, line BIGINT NOT NULL, name VARCHAR(200) NOT NULL, description TEXT, " +
+            "status VARCHAR(50) NOT NULL, created_at TIMESTAMP) ON COMMIT DROP";
+
+    private static final String CREATE_ANSWERS =
+            "CREATE TEMP TABLE import_answers (" +
+            "source_key TEXT NOT NULL, line BIGINT NOT NULL, kind CHAR(1) NOT NULL, item_id BIGINT NOT NULL, " +
+            "value SMALLINT NOT NULL, comment TEXT) ON COMMIT DROP";
+
+    // Ids are drawn in file order, so imported assessments keep their order in the user's list
+    private static final String MERGE =
+            "WITH keyed AS (" +
+            "SELECT s.source_key, nextval(pg_get_serial_sequence('assessments', 'id')) AS id, " +
+            "s.name, s.description, s.status, s.created_at " +
+            "FROM (SELECT * FROM import_assessments ORDER BY line) s), " +
+            "new_assessments AS (" +
+            "INSERT INTO assessments (id, name, description, status, user_id, created_at, updated_at) " +
+            "SELECT id, name, description, status, ?, coalesce(created_at, ?), ? FROM keyed), " +
+            "new_responses AS (" +
+            "INSERT INTO responses (assessment_id, requirement_id, value, comment, created_at, updated_at) " +
+            "SELECT k.id, x.item_id, x.value, x.comment, ?, ? " +
+            "FROM import_answers x JOIN keyed k ON k.source_key = x.source_key WHERE x.kind = 'R'), " +
+            "new_area_scores AS (" +
+            "INSERT INTO area_scores (assessment_id, area_id, score, comment, created_at, updated_at) " +
+            "SELECT k.id, x.item_id, x.value, x.comment, ?, ? " +
+            "FROM import_answers x JOIN keyed k ON k.source_key = x.source_key WHERE x.kind = 'S') " +
+            "SELECT source_key, id FROM keyed";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void createStagingTables() {
+        jdbcTemplate.execute(CREATE_ASSESSMENTS);
+        jdbcTemplate.execute(CREATE_ANSWERS);
+    }
+
+    // Hands the producer a sink that streams answers into import_answers; returns the number of rows copied
+    public long copyAnswers(AnswerProducer producer) {
+        return copy("COPY import_answers (source_key, line, kind, item_id, value, comment) FROM STDIN WITH (FORMAT csv)",
+                writer -> producer.produce((sourceKey, line, kind, itemId, code, comment) -> {
+                    text(writer, sourceKey, false);
+                    writer.write(line + "," + kind + "," + itemId + "," + code + ",");
+                    text(writer, comment, true);
+                }));
+    }
+
+    public long copyAssessments(Collection<StagedAssessment> assessments) {
+        return copy("COPY import_assessments (source_key, line, name, description, status, created_at) FROM STDIN WITH (FORMAT csv)",
+                writer -> {
+                    for (StagedAssessment assessment : assessments) {
+                        text(writer, assessment.getSourceKey(), false);
+                        writer.write(assessment.getLine() + ",");
+                        text(writer, assessment.getName(), false);
+                        text(writer, assessment.getDescription(), false);
+                        text(writer, assessment.getStatus(), false);
+                        text(writer, assessment.getCreatedAt() == null ? null : assessment.getCreatedAt().toString(), true);
+                    }
+                });
+    }
+
+    // Inserts the staged assessments with their answers for the given owner; returns source key -> new id
+    public Map<String, Long> merge(Long userId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Map<String, Long> ids = new LinkedHashMap<>();
+        jdbcTemplate.query(MERGE, (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2)),
+                userId, timestamp, timestamp, timestamp, timestamp, timestamp, timestamp);
+        return ids;
+    }
+
+    // Staged answers grouped by assessment, in file order within each assessment
+    public void readAnswers(AnswerHandler handler) {
+        jdbcTemplate.query("SELECT source_key, kind, item_id, value, comment FROM import_answers ORDER BY source_key, line",
+                (RowCallbackHandler) rs -> handler.handle(rs.getString(1), rs.getString(2), rs.getLong(3),
+                        rs.getShort(4), rs.getString(5)));
+    }
+
+    private long copy(String sql, CopyBody body) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            // COPY is not part of JDBC; the pooled and proxied connection wraps the driver's own
+            PGCopyOutputStream out = new PGCopyOutputStream(con.unwrap(PGConnection.class), sql, BUFFER_SIZE);
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                body.write(writer);
+                writer.flush();
+                return out.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (out.isActive()) {
+                    out.cancelCopy();
+                }
+            }
+        });
+    }
+
+    // Quoted CSV field, or an unquoted empty field for null, which COPY reads as NULL
+    private static void text(Writer writer, String value, boolean last) throws IOException {
+        if (value != null) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+        writer.write(last ? '\n' : ',');
+    }
+
+    private interface CopyBody {
+        void write(Writer writer) throws IOException;
+    }
+
+    public interface AnswerProducer {
+        void produce(AnswerSink sink) throws IOException;
+    }
+
+    public interface AnswerSink {
+        void add(String sourceKey, long line, String kind, long itemId, short code, String comment) throws IOException;
+    }
+
+    public interface AnswerHandler {
+        void handle(String sourceKey, String kind, long itemId, short code, String comment);
+    }
+
+    @Value
+    public static class StagedAssessment {
+        String sourceKey;
+        // Line of the first row of the assessment in the imported file
+        long line;
+        String name;
+        String description;
+        String status;
+        LocalDateTime createdAt;
+    }
+}
@@ -1,8 +1,13 @@
 package com.rodoassessment.gdprassessmentpanel.repository;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import com.rodoassessment.gdprassessmentpanel.model.Area;
 import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +17,16 @@ public interface RequirementRepository extends JpaRepository<Requirement, Long>
     
     List<Requirement> findByArea(Area area);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.CATALOG_QUERY_REGION)
+    })
     List<Requirement> findByAreaOrderByOrderNumberAsc(Area area);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.CATALOG_QUERY_REGION)
+    })
+    @Query("select r from Requirement r join fetch r.area a join fetch a.chapter order by a.id asc, r.orderNumber asc")
+    List<Requirement> findAllWithAreaOrdered();
 }
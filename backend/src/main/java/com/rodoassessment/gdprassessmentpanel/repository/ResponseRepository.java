@@ -3,9 +3,13 @@ package com.rodoassessment.gdprassessmentpanel.repository;
 import com.rodoassessment.gdprassessmentpanel.model.Assessment;
 import com.rodoassessment.gdprassessmentpanel.model.Requirement;
 import com.rodoassessment.gdprassessmentpanel.model.Response;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +21,15 @@ public interface ResponseRepository extends JpaRepository<Response, Long> {
     List<Response> findByAssessmentAndRequirement(Assessment assessment, Requirement requirement);
     
     Optional<Response> findByAssessmentIdAndRequirementId(Long assessmentId, Long requirementId);
+    
+    @Query("select r.assessment.id as assessmentId, r.requirement.id as requirementId, r.value as value, r.comment as comment " +
+           "from Response r where r.assessment.id in :assessmentIds")
+    List<ValueView> findValuesByAssessmentIds(@Param("assessmentIds") Collection<Long> assessmentIds);
+    
+    interface ValueView {
+        Long getAssessmentId();
+        Long getRequirementId();
+        ResponseValue getValue();
+        String getComment();
+    }
 }
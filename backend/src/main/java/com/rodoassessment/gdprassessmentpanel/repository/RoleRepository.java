@@ -1,7 +1,11 @@
 package com.rodoassessment.gdprassessmentpanel.repository;
 
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
 import com.rodoassessment.gdprassessmentpanel.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,6 +13,10 @@ import java.util.Optional;
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.ROLE_QUERY_REGION)
+    })
     Optional<Role> findByName(String name);
     
     Boolean existsByName(String name);
@@ -3,7 +3,11 @@ package com.rodoassessment.gdprassessmentpanel.security;
 import com.rodoassessment.gdprassessmentpanel.security.jwt.AuthEntryPointJwt;
 import com.rodoassessment.gdprassessmentpanel.security.jwt.AuthTokenFilter;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,6 +37,12 @@ public class WebSecurityConfig {
     
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
+
+    @Autowired
+    private ManagementServerProperties managementServerProperties;
+
+    @Value("${app.auth.bcrypt-strength}")
+    private int bcryptStrength;
     
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
@@ -56,7 +66,8 @@ public class WebSecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Existing hashes keep verifying after a change, since each hash records its own strength
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
     
     @Bean
@@ -65,8 +76,15 @@ public class WebSecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/**").permitAll()
+                // Async results (reports) are written on a second dispatch of an already authorized request
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    // Prometheus scrapes without a token on the management port (MANAGEMENT_SERVER_PORT), which
+                    // should not be reachable from outside; on the API port the metrics are for admins only
+                    .requestMatchers(this::isManagementPort).permitAll()
+                    .requestMatchers("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                     .anyRequest().authenticated()
             );
         
@@ -77,6 +95,11 @@ public class WebSecurityConfig {
         return http.build();
     }
     
+    private boolean isManagementPort(HttpServletRequest request) {
+        Integer port = managementServerProperties.getPort();
+        return port != null && port > 0 && request.getLocalPort() == port;
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -1,5 +1,9 @@
 package com.rodoassessment.gdprassessmentpanel.security.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +21,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsServiceImpl;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
@@ -25,23 +30,40 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
+    private Timer validTokens;
+    private Timer invalidTokens;
+
+    @PostConstruct
+    public void registerMetrics() {
+        validTokens = Timer.builder("jwt.validation").tag("result", "valid").publishPercentileHistogram().register(meterRegistry);
+        invalidTokens = Timer.builder("jwt.validation").tag("result", "invalid").publishPercentileHistogram().register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? parseClaims(jwt) : null;
+            if (claims != null) {
+                // Tokens carry the user id and roles, so steady-state requests need no database lookup
+                UserDetails userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+                if (userDetails == null) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
                                 null,
                                 userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(authenticationDetailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -52,6 +74,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Claims parseClaims(String jwt) {
+        long started = System.nanoTime();
+        Claims claims = jwtUtils.parseJwtToken(jwt);
+        (claims != null ? validTokens : invalidTokens).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -4,59 +4,113 @@ import com.rodoassessment.gdprassessmentpanel.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String EMAIL_CLAIM = "email";
+    static final String ROLES_CLAIM = "roles";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
 
+    // The signing key and the parser are immutable and thread-safe, so they are built once
+    private Key key;
+    private JwtParser parser;
+
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : userPrincipal.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(USER_ID_CLAIM, userPrincipal.getId())
+                .claim(EMAIL_CLAIM, userPrincipal.getEmail())
+                .claim(ROLES_CLAIM, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken) != null;
+    }
+
+    // Verifies the token and returns its claims, or null when the token is not valid
+    public Claims parseJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    // Builds the principal from the claims alone; returns null for tokens issued without user id and roles
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(userId instanceof Number) || !(roles instanceof List)) {
+            return null;
+        }
+
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (Object role : (List<?>) roles) {
+            grantedAuthorities.add(authorities.computeIfAbsent(String.valueOf(role), SimpleGrantedAuthority::new));
+        }
+
+        return new UserDetailsImpl(
+                ((Number) userId).longValue(),
+                claims.getSubject(),
+                claims.get(EMAIL_CLAIM, String.class),
+                null,
+                grantedAuthorities);
     }
 }
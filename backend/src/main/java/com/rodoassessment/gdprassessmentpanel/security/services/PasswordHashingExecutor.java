@@ -0,0 +1,84 @@
+package com.rodoassessment.gdprassessmentpanel.security.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs BCrypt-bound work (sign-in and sign-up) off the servlet threads on a pool sized to the CPU count.
+// The queue is bounded and submissions fail fast once it is full, so a login storm cannot starve Tomcat.
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.hashing.threads}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue-capacity}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Sign-in and sign-up requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        hashTimer = Timer.builder("auth.hashing")
+                .description("Time spent in password hashing work")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.hashing.rejected")
+                .description("Requests rejected because the hashing queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    // Throws RejectedExecutionException right away when the pool and its queue are saturated
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,347 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AnalyticsFailureRatesDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AnalyticsFreshnessDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AnalyticsTrendDto;
+import com.rodoassessment.gdprassessmentpanel.repository.AnalyticsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Failure rates across all assessments, read from materialized views that are refreshed in the background
+// (every refresh interval when anything was written, or sooner after refresh-after-writes writes). Requests
+// only read the precomputed counts and roll them up over the in-memory catalog; every answer carries the
+// time its snapshot was taken.
+@Service
+public class AnalyticsService {
+
+    public enum Level { OVERALL, CHAPTER, AREA, REQUIREMENT }
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private static final List<String> VIEWS = List.of(AnalyticsRepository.REQUIREMENT_STATS, AnalyticsRepository.REQUIREMENT_TREND);
+
+    @Autowired
+    private AnalyticsRepository analyticsRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.refresh-after-writes}")
+    private long refreshAfterWrites;
+
+    private final AtomicLong pendingWrites = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private ExecutorService executor;
+    private Timer refreshTimer;
+
+    @PostConstruct
+    public void start() {
+        // A refresh of a large database takes a while; it must not hold up the shared scheduler thread
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("analytics.pending.writes", pendingWrites, AtomicLong::get)
+                .description("Assessment writes not yet reflected in the analytics views")
+                .register(meterRegistry);
+        refreshTimer = Timer.builder("analytics.refresh").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createViews() {
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            List<String> created = template.execute(status -> {
+                analyticsRepository.lock();
+                return analyticsRepository.createMissingViews();
+            });
+            if (created != null && !created.isEmpty()) {
+                logger.info("Created analytics views {}", created);
+            }
+        } catch (Exception e) {
+            logger.error("Cannot create analytics views: {}", e.getMessage());
+            return;
+        }
+        // Populates new views without delaying startup; until then the endpoints return no items
+        requestRefresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        // The views only count answers, so status and area score changes leave them as they are
+        if (event.getType() == AssessmentChangedEvent.Type.UPDATED && event.getChanges().getResponses().isEmpty()) {
+            return;
+        }
+        long writes = pendingWrites.incrementAndGet();
+        if (refreshAfterWrites > 0 && writes >= refreshAfterWrites) {
+            requestRefresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-interval-ms}")
+    public void refreshIfStale() {
+        if (pendingWrites.get() > 0) {
+            requestRefresh();
+        }
+    }
+
+    // Starts a refresh in the background unless one is already running; returns whether one was started
+    public boolean requestRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+    }
+
+    private void refresh() {
+        // Writes committed from here on may be missed by this refresh, so they count towards the next one
+        long writes = pendingWrites.getAndSet(0);
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            Boolean refreshed = template.execute(status -> {
+                if (!analyticsRepository.tryLock()) {
+                    return false;
+                }
+                for (String view : VIEWS) {
+                    // The view reflects what was committed when the refresh statement started
+                    LocalDateTime snapshotAt = LocalDateTime.now();
+                    long start = System.nanoTime();
+                    analyticsRepository.refresh(view, analyticsRepository.isPopulated(view));
+                    long nanos = System.nanoTime() - start;
+                    refreshTimer.record(nanos, TimeUnit.NANOSECONDS);
+                    analyticsRepository.recordRefresh(view, snapshotAt, nanos / 1_000_000);
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(refreshed)) {
+                logger.debug("Refreshed analytics views after {} write(s)", writes);
+            } else {
+                // Another instance may have started before some of these writes; try again later
+                pendingWrites.addAndGet(writes);
+                logger.debug("Analytics views are being refreshed by another instance");
+            }
+        } catch (Exception e) {
+            pendingWrites.addAndGet(writes);
+            logger.error("Cannot refresh analytics views: {}", e.getMessage());
+        }
+    }
+
+    // chapterId and areaId narrow the items to one chapter or area; items with fewer than minAnswered
+    // answers are left out, so a single NIE does not top the list with 100%
+    @Transactional(readOnly = true)
+    public AnalyticsFailureRatesDto getFailureRates(Level level, Long chapterId, Long areaId, long minAnswered, int limit) {
+        AnalyticsFreshnessDto freshness = freshness(AnalyticsRepository.REQUIREMENT_STATS);
+        List<AnalyticsFailureRatesDto.FailureRateDto> items = new ArrayList<>();
+        if (freshness.getRefreshedAt() == null) {
+            return new AnalyticsFailureRatesDto(freshness, level.name(), items);
+        }
+
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        Map<Long, Counts> counts = new HashMap<>();
+        for (AnalyticsRepository.RequirementCounts row : analyticsRepository.findRequirementStats()) {
+            CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(row.getRequirementId());
+            if (requirement == null || !matches(catalog, requirement, chapterId, areaId)) {
+                continue;
+            }
+            counts.computeIfAbsent(key(catalog, requirement, level), id -> new Counts()).add(row);
+        }
+
+        for (Map.Entry<Long, Counts> entry : counts.entrySet()) {
+            Counts total = entry.getValue();
+            if (total.answered() < Math.max(1, minAnswered)) {
+                continue;
+            }
+            items.add(item(catalog, level, entry.getKey(), total));
+        }
+        items.sort(Comparator.comparing((AnalyticsFailureRatesDto.FailureRateDto item) -> counts.get(item.getId()).failureRate())
+                .reversed()
+                .thenComparing(AnalyticsFailureRatesDto.FailureRateDto::getFailedCount, Comparator.reverseOrder())
+                .thenComparing(item -> item.getId() == null ? 0L : item.getId()));
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+        }
+        return new AnalyticsFailureRatesDto(freshness, level.name(), items);
+    }
+
+    // Monthly failure rates of everything (OVERALL) or of one chapter, area or requirement
+    @Transactional(readOnly = true)
+    public AnalyticsTrendDto getTrend(Level level, Long id, YearMonth from, YearMonth to) {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        String name = null;
+        if (level != Level.OVERALL) {
+            name = name(catalog, level, id);
+            if (name == null) {
+                throw new IllegalArgumentException("Error: " + level.name().charAt(0) + level.name().substring(1).toLowerCase()
+                        + " " + id + " does not exist.");
+            }
+        }
+
+        AnalyticsFreshnessDto freshness = freshness(AnalyticsRepository.REQUIREMENT_TREND);
+        List<AnalyticsTrendDto.PointDto> points = new ArrayList<>();
+        if (freshness.getRefreshedAt() == null) {
+            return new AnalyticsTrendDto(freshness, level.name(), id, name, points);
+        }
+
+        Map<LocalDate, Counts> months = new TreeMap<>();
+        for (AnalyticsRepository.RequirementCounts row : analyticsRepository.findRequirementTrend(
+                from == null ? null : from.atDay(1), to == null ? null : to.atDay(1))) {
+            CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(row.getRequirementId());
+            if (requirement == null || (level != Level.OVERALL && !id.equals(key(catalog, requirement, level)))) {
+                continue;
+            }
+            months.computeIfAbsent(row.getMonth(), month -> new Counts()).add(row);
+        }
+        for (Map.Entry<LocalDate, Counts> entry : months.entrySet()) {
+            Counts total = entry.getValue();
+            points.add(new AnalyticsTrendDto.PointDto(YearMonth.from(entry.getKey()).toString(), total.answered(),
+                    total.failed, total.inProgress, percent(total.failed, total.scored())));
+        }
+        return new AnalyticsTrendDto(freshness, level.name(), id, name, points);
+    }
+
+    private AnalyticsFreshnessDto freshness(String view) {
+        AnalyticsRepository.RefreshInfo refresh = analyticsRepository.findRefresh(view);
+        return new AnalyticsFreshnessDto(refresh == null ? null : refresh.getRefreshedAt(),
+                refresh == null ? null : refresh.getDurationMs(), pendingWrites.get(), refreshing.get());
+    }
+
+    static boolean matches(CatalogSnapshot catalog, CatalogSnapshot.RequirementNode requirement, Long chapterId, Long areaId) {
+        if (areaId != null && !areaId.equals(requirement.getAreaId())) {
+            return false;
+        }
+        if (chapterId != null) {
+            CatalogSnapshot.AreaNode area = catalog.getArea(requirement.getAreaId());
+            return area != null && chapterId.equals(area.getChapterId());
+        }
+        return true;
+    }
+
+    // Id of the chapter, area or requirement the requirement's answers count towards; null for OVERALL
+    static Long key(CatalogSnapshot catalog, CatalogSnapshot.RequirementNode requirement, Level level) {
+        switch (level) {
+            case REQUIREMENT:
+                return requirement.getId();
+            case AREA:
+                return requirement.getAreaId();
+            case CHAPTER:
+                CatalogSnapshot.AreaNode area = catalog.getArea(requirement.getAreaId());
+                return area == null ? null : area.getChapterId();
+            default:
+                return null;
+        }
+    }
+
+    static String name(CatalogSnapshot catalog, Level level, Long id) {
+        switch (level) {
+            case REQUIREMENT:
+                CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(id);
+                return requirement == null ? null : requirement.getText();
+            case AREA:
+                CatalogSnapshot.AreaNode area = catalog.getArea(id);
+                return area == null ? null : area.getName();
+            case CHAPTER:
+                CatalogSnapshot.ChapterNode chapter = id == null ? null : catalog.getChaptersById().get(id);
+                return chapter == null ? null : chapter.getName();
+            default:
+                return null;
+        }
+    }
+
+    private static AnalyticsFailureRatesDto.FailureRateDto item(CatalogSnapshot catalog, Level level, Long id, Counts total) {
+        Long chapterId = null;
+        Long areaId = null;
+        if (level == Level.REQUIREMENT) {
+            areaId = catalog.getRequirement(id).getAreaId();
+        } else if (level == Level.AREA) {
+            areaId = id;
+        } else if (level == Level.CHAPTER) {
+            chapterId = id;
+        }
+        if (areaId != null && catalog.getArea(areaId) != null) {
+            chapterId = catalog.getArea(areaId).getChapterId();
+        }
+        return new AnalyticsFailureRatesDto.FailureRateDto(id, name(catalog, level, id), chapterId, areaId,
+                total.answered(), total.positive, total.failed, total.inProgress, total.notApplicable,
+                percent(total.failed, total.scored()));
+    }
+
+    static Integer percent(long part, long whole) {
+        return whole <= 0 ? null : (int) Math.round(100.0 * part / whole);
+    }
+
+    private static final class Counts {
+        private long positive;
+        private long failed;
+        private long inProgress;
+        private long notApplicable;
+
+        void add(AnalyticsRepository.RequirementCounts row) {
+            positive += row.getPositive();
+            failed += row.getFailed();
+            inProgress += row.getInProgress();
+            notApplicable += row.getNotApplicable();
+        }
+
+        long scored() {
+            return positive + failed + inProgress;
+        }
+
+        long answered() {
+            return scored() + notApplicable;
+        }
+
+        double failureRate() {
+            return scored() == 0 ? 0 : (double) failed / scored();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import lombok.Value;
+
+import java.util.Objects;
+
+// Published by AssessmentWriteService inside the writing transaction. Listeners that keep derived state
+// in memory should use @TransactionalEventListener so they only see committed changes.
+@Value
+public class AssessmentChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    Type type;
+    Long assessmentId;
+    Long userId;
+    // Status before the change; null for a new assessment
+    String previousStatus;
+    String status;
+    AssessmentChanges changes;
+
+    public boolean isStatusChanged() {
+        return type == Type.UPDATED && !Objects.equals(previousStatus, status);
+    }
+}
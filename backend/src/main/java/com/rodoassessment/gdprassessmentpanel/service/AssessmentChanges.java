@@ -0,0 +1,16 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class AssessmentChanges {
+    Long assessmentId;
+    List<ValueChange> responses;
+    List<ValueChange> areaScores;
+
+    public boolean isEmpty() {
+        return responses.isEmpty() && areaScores.isEmpty();
+    }
+}
@@ -0,0 +1,160 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.repository.AreaScoreRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ResponseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+public class AssessmentReadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssessmentReadService.class);
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    @Autowired
+    private AreaScoreRepository areaScoreRepository;
+
+    @Autowired
+    private AutosaveBuffer autosaveBuffer;
+
+    // The catalog comes from the in-memory snapshot; responses and area scores are each fetched with
+    // one set-based query and joined in memory, so the number of queries does not depend on the catalog size
+    @Transactional(readOnly = true)
+    public AssessmentDto read(Assessment assessment) {
+        return readAll(Collections.singletonList(assessment)).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AssessmentDto> readAll(List<Assessment> assessments) {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+
+        if (assessments.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = new ArrayList<>(assessments.size());
+        for (Assessment assessment : assessments) {
+            ids.add(assessment.getId());
+        }
+
+        Map<Long, Map<Long, ValueEdit>> responsesByAssessment = new HashMap<>();
+        for (ResponseRepository.ValueView view : responseRepository.findValuesByAssessmentIds(ids)) {
+            responsesByAssessment.computeIfAbsent(view.getAssessmentId(), k -> new HashMap<>())
+                    .put(view.getRequirementId(), new ValueEdit(view.getValue().getLabel(), view.getComment()));
+        }
+
+        Map<Long, Map<Long, ValueEdit>> scoresByAssessment = new HashMap<>();
+        for (AreaScoreRepository.ScoreView view : areaScoreRepository.findScoresByAssessmentIds(ids)) {
+            scoresByAssessment.computeIfAbsent(view.getAssessmentId(), k -> new HashMap<>())
+                    .put(view.getAreaId(), new ValueEdit(view.getScore().getLabel(), view.getComment()));
+        }
+
+        List<AssessmentDto> dtos = new ArrayList<>(assessments.size());
+        for (Assessment assessment : assessments) {
+            if (autosaveBuffer.isEnabled()) {
+                autosaveBuffer.overlay(assessment.getId(),
+                        responsesByAssessment.computeIfAbsent(assessment.getId(), k -> new HashMap<>()),
+                        scoresByAssessment.computeIfAbsent(assessment.getId(), k -> new HashMap<>()));
+            }
+            AssessmentDto dto = new AssessmentDto();
+            dto.setId(assessment.getId());
+            dto.setName(assessment.getName());
+            dto.setDescription(assessment.getDescription());
+            dto.setStatus(assessment.getStatus());
+            dto.setCreatedAt(assessment.getCreatedAt());
+            dto.setUpdatedAt(assessment.getUpdatedAt());
+            dto.setChapters(buildChapters(catalog,
+                    responsesByAssessment.getOrDefault(assessment.getId(), Collections.emptyMap()),
+                    scoresByAssessment.getOrDefault(assessment.getId(), Collections.emptyMap())));
+            dtos.add(dto);
+        }
+
+        logger.debug("Built {} assessment tree(s)", dtos.size());
+        return dtos;
+    }
+
+    public AssessmentDto readTemplate() {
+        AssessmentDto template = new AssessmentDto();
+        template.setId(null);
+        template.setName("");
+        template.setDescription("");
+        template.setStatus("DRAFT");
+        template.setChapters(buildChapters(catalogService.getSnapshot(), Collections.emptyMap(), Collections.emptyMap()));
+
+        return template;
+    }
+
+    // Pure function of the catalog and the values; also driven directly by the benchmarks module
+    public static List<AssessmentDto.ChapterDto> buildChapters(CatalogSnapshot catalog,
+                                                               Map<Long, ValueEdit> responses,
+                                                               Map<Long, ValueEdit> scores) {
+        List<AssessmentDto.ChapterDto> chapterDtos = new ArrayList<>(catalog.getChapters().size());
+
+        for (CatalogSnapshot.ChapterNode chapter : catalog.getChapters()) {
+            AssessmentDto.ChapterDto chapterDto = new AssessmentDto.ChapterDto();
+            chapterDto.setId(chapter.getId());
+            chapterDto.setName(chapter.getName());
+            chapterDto.setDescription(chapter.getDescription());
+            chapterDto.setOrderNumber(chapter.getOrderNumber());
+
+            List<AssessmentDto.AreaDto> areaDtos = new ArrayList<>(chapter.getAreas().size());
+
+            for (CatalogSnapshot.AreaNode area : chapter.getAreas()) {
+                AssessmentDto.AreaDto areaDto = new AssessmentDto.AreaDto();
+                areaDto.setId(area.getId());
+                areaDto.setName(area.getName());
+                areaDto.setDescription(area.getDescription());
+                areaDto.setOrderNumber(area.getOrderNumber());
+
+                ValueEdit score = scores.get(area.getId());
+                if (score != null) {
+                    areaDto.setScore(score.getValue());
+                    areaDto.setComment(score.getComment());
+                } else {
+                    areaDto.setScore("");
+                    areaDto.setComment("");
+                }
+
+                List<AssessmentDto.RequirementDto> reqDtos = new ArrayList<>(area.getRequirements().size());
+
+                for (CatalogSnapshot.RequirementNode req : area.getRequirements()) {
+                    AssessmentDto.RequirementDto reqDto = new AssessmentDto.RequirementDto();
+                    reqDto.setId(req.getId());
+                    reqDto.setText(req.getText());
+                    reqDto.setOrderNumber(req.getOrderNumber());
+
+                    ValueEdit response = responses.get(req.getId());
+                    if (response != null) {
+                        reqDto.setValue(response.getValue());
+                        reqDto.setComment(response.getComment());
+                    } else {
+                        reqDto.setValue("");
+                        reqDto.setComment("");
+                    }
+
+                    reqDtos.add(reqDto);
+                }
+
+                areaDto.setRequirements(reqDtos);
+                areaDtos.add(areaDto);
+            }
+
+            chapterDto.setAreas(areaDtos);
+            chapterDtos.add(chapterDto);
+        }
+
+        return chapterDtos;
+    }
+}
@@ -0,0 +1,73 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentSummaryDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentSummaryPage;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class AssessmentSummaryService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private AssessmentSummaryRepository assessmentSummaryRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Transactional(readOnly = true)
+    public AssessmentSummaryPage findPage(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decode(cursor);
+            afterCreatedAt = LocalDateTime.parse(parts[0]);
+            afterId = Long.valueOf(parts[1]);
+        }
+
+        // One row more than requested tells whether another page exists
+        List<AssessmentSummaryDto> rows = assessmentSummaryRepository.findPage(userId, afterCreatedAt, afterId,
+                pageSize + 1, catalogService.getSnapshot().getRequirementCount());
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AssessmentSummaryDto last = rows.get(pageSize - 1);
+            nextCursor = encode(last.getCreatedAt(), last.getId());
+        }
+
+        return new AssessmentSummaryPage(rows, nextCursor);
+    }
+
+    private static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Error: Invalid cursor.");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Error: Invalid cursor.");
+        }
+    }
+}
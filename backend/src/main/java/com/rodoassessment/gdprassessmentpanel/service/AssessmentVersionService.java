@@ -0,0 +1,255 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentVersionCompareDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentVersionDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentVersionPage;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+// Point-in-time versions of assessments. Each committed change that alters answers or the status adds a
+// version; every base-interval-th version stores all answers, the others only the changed items. Any
+// version is rebuilt from its base and fewer than base-interval deltas, read with one index range scan.
+@Service
+public class AssessmentVersionService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String BASE = "BASE";
+    private static final String DELTA = "DELTA";
+
+    private static final TypeReference<Map<String, Map<Long, List<String>>>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private AssessmentVersionRepository assessmentVersionRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.versions.base-interval}")
+    private int baseInterval;
+
+    // Runs synchronously inside the writing transaction, which holds the assessment row lock, so version
+    // numbers of one assessment are assigned one at a time
+    @EventListener
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        Long assessmentId = event.getAssessmentId();
+        if (event.getType() == AssessmentChangedEvent.Type.DELETED) {
+            assessmentVersionRepository.deleteAll(assessmentId);
+            return;
+        }
+        AssessmentChanges changes = event.getChanges();
+        if (event.getType() == AssessmentChangedEvent.Type.UPDATED && changes.isEmpty() && !event.isStatusChanged()) {
+            return;
+        }
+
+        AssessmentVersionRepository.VersionInfo latest = assessmentVersionRepository.findLatest(assessmentId);
+        int version = latest == null ? 1 : latest.getVersion() + 1;
+        boolean base = latest == null || version - latest.getBaseVersion() >= Math.max(1, baseInterval);
+
+        State state = new State();
+        if (base) {
+            assessmentVersionRepository.readResponses(assessmentId, state.responses);
+            assessmentVersionRepository.readAreaScores(assessmentId, state.areaScores);
+        } else {
+            for (ValueChange change : changes.getResponses()) {
+                state.responses.put(change.getItemId(), Arrays.asList(change.getNewValue(), change.getNewComment()));
+            }
+            for (ValueChange change : changes.getAreaScores()) {
+                state.areaScores.put(change.getItemId(), Arrays.asList(change.getNewValue(), change.getNewComment()));
+            }
+        }
+
+        AssessmentVersionRepository.VersionInfo info = new AssessmentVersionRepository.VersionInfo(
+                version, base ? version : latest.getBaseVersion(), base ? BASE : DELTA, event.getStatus(),
+                event.getUserId(), changes.getResponses().size() + changes.getAreaScores().size(), LocalDateTime.now());
+        assessmentVersionRepository.insert(assessmentId, info, write(state));
+    }
+
+    @Transactional(readOnly = true)
+    public AssessmentVersionPage findPage(Long assessmentId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Integer beforeVersion = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                beforeVersion = Integer.valueOf(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Error: Invalid cursor.");
+            }
+        }
+
+        // One row more than requested tells whether another page exists
+        List<AssessmentVersionRepository.VersionInfo> rows =
+                assessmentVersionRepository.findPage(assessmentId, beforeVersion, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = String.valueOf(rows.get(pageSize - 1).getVersion());
+        }
+
+        List<AssessmentVersionPage.VersionDto> items = new ArrayList<>(rows.size());
+        for (AssessmentVersionRepository.VersionInfo row : rows) {
+            items.add(new AssessmentVersionPage.VersionDto(row.getVersion(), row.getStatus(), row.getChangeCount(),
+                    row.getUserId(), row.getCreatedAt()));
+        }
+        return new AssessmentVersionPage(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public AssessmentVersionDto getVersion(Long assessmentId, int version) {
+        return toDto(assessmentId, find(assessmentId, version));
+    }
+
+    @Transactional(readOnly = true)
+    public AssessmentVersionDto getVersionAt(Long assessmentId, LocalDateTime at) {
+        return toDto(assessmentId, findAt(assessmentId, at));
+    }
+
+    // Either bound may be a version number or a point in time; a missing "to" means the latest version
+    @Transactional(readOnly = true)
+    public AssessmentVersionCompareDto compare(Long assessmentId, Integer fromVersion, LocalDateTime fromAt,
+                                               Integer toVersion, LocalDateTime toAt) {
+        AssessmentVersionRepository.VersionInfo from = fromVersion != null ? find(assessmentId, fromVersion)
+                : fromAt != null ? findAt(assessmentId, fromAt) : null;
+        if (from == null) {
+            throw new IllegalArgumentException("Error: Version to compare from is required.");
+        }
+        AssessmentVersionRepository.VersionInfo to = toVersion != null ? find(assessmentId, toVersion)
+                : toAt != null ? findAt(assessmentId, toAt) : assessmentVersionRepository.findLatest(assessmentId);
+
+        State fromState = reconstruct(assessmentId, from);
+        State toState = reconstruct(assessmentId, to);
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+
+        return new AssessmentVersionCompareDto(assessmentId, from.getVersion(), to.getVersion(), from.getStatus(),
+                to.getStatus(),
+                differences(fromState.responses, toState.responses, id -> requirementText(catalog, id)),
+                differences(fromState.areaScores, toState.areaScores, id -> areaName(catalog, id)));
+    }
+
+    private AssessmentVersionRepository.VersionInfo find(Long assessmentId, int version) {
+        AssessmentVersionRepository.VersionInfo info = assessmentVersionRepository.findVersion(assessmentId, version);
+        if (info == null) {
+            throw new IllegalArgumentException("Error: Version " + version + " does not exist.");
+        }
+        return info;
+    }
+
+    private AssessmentVersionRepository.VersionInfo findAt(Long assessmentId, LocalDateTime at) {
+        AssessmentVersionRepository.VersionInfo info = assessmentVersionRepository.findVersionAt(assessmentId, at);
+        if (info == null) {
+            throw new IllegalArgumentException("Error: No version exists at " + at + ".");
+        }
+        return info;
+    }
+
+    private State reconstruct(Long assessmentId, AssessmentVersionRepository.VersionInfo info) {
+        State state = new State();
+        for (String payload : assessmentVersionRepository.findChain(assessmentId, info.getBaseVersion(), info.getVersion())) {
+            State step = read(payload);
+            apply(state.responses, step.responses);
+            apply(state.areaScores, step.areaScores);
+        }
+        return state;
+    }
+
+    // Bases leave out blank items without a comment, so a delta that clears an item removes it
+    private static void apply(Map<Long, List<String>> state, Map<Long, List<String>> step) {
+        step.forEach((id, value) -> {
+            if (isBlank(value.get(0)) && isBlank(value.get(1))) {
+                state.remove(id);
+            } else {
+                state.put(id, value);
+            }
+        });
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isEmpty();
+    }
+
+    private AssessmentVersionDto toDto(Long assessmentId, AssessmentVersionRepository.VersionInfo info) {
+        State state = reconstruct(assessmentId, info);
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+
+        List<AssessmentVersionDto.ItemDto> responses = new ArrayList<>(state.responses.size());
+        state.responses.forEach((id, value) -> responses.add(
+                new AssessmentVersionDto.ItemDto(id, requirementText(catalog, id), value.get(0), value.get(1))));
+        List<AssessmentVersionDto.ItemDto> areaScores = new ArrayList<>(state.areaScores.size());
+        state.areaScores.forEach((id, value) -> areaScores.add(
+                new AssessmentVersionDto.ItemDto(id, areaName(catalog, id), value.get(0), value.get(1))));
+
+        return new AssessmentVersionDto(assessmentId, info.getVersion(), info.getStatus(), info.getCreatedAt(),
+                responses, areaScores);
+    }
+
+    private static List<AssessmentVersionCompareDto.DifferenceDto> differences(
+            Map<Long, List<String>> from, Map<Long, List<String>> to, Function<Long, String> names) {
+        SortedSet<Long> ids = new TreeSet<>(from.keySet());
+        ids.addAll(to.keySet());
+
+        List<AssessmentVersionCompareDto.DifferenceDto> differences = new ArrayList<>();
+        for (Long id : ids) {
+            List<String> fromValue = from.getOrDefault(id, Arrays.asList(null, null));
+            List<String> toValue = to.getOrDefault(id, Arrays.asList(null, null));
+            if (!fromValue.equals(toValue)) {
+                differences.add(new AssessmentVersionCompareDto.DifferenceDto(id, names.apply(id),
+                        fromValue.get(0), toValue.get(0), fromValue.get(1), toValue.get(1)));
+            }
+        }
+        return differences;
+    }
+
+    private static String requirementText(CatalogSnapshot catalog, Long id) {
+        CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(id);
+        return requirement == null ? null : requirement.getText();
+    }
+
+    private static String areaName(CatalogSnapshot catalog, Long id) {
+        CatalogSnapshot.AreaNode area = catalog.getArea(id);
+        return area == null ? null : area.getName();
+    }
+
+    private String write(State state) {
+        Map<String, Map<Long, List<String>>> payload = new LinkedHashMap<>();
+        payload.put("r", state.responses);
+        payload.put("a", state.areaScores);
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize assessment version", e);
+        }
+    }
+
+    private State read(String payload) {
+        try {
+            Map<String, Map<Long, List<String>>> values = objectMapper.readValue(payload, PAYLOAD_TYPE);
+            State state = new State();
+            state.responses.putAll(values.getOrDefault("r", Collections.emptyMap()));
+            state.areaScores.putAll(values.getOrDefault("a", Collections.emptyMap()));
+            return state;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read assessment version", e);
+        }
+    }
+
+    // Value and comment per requirement / area, ordered by id
+    private static class State {
+        final Map<Long, List<String>> responses = new TreeMap<>();
+        final Map<Long, List<String>> areaScores = new TreeMap<>();
+    }
+}
@@ -0,0 +1,228 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import com.rodoassessment.gdprassessmentpanel.model.User;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentBatchRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Write path for assessments: ids are validated against the in-memory catalog, only rows that actually
+// change are written, and all of them go to the database as JDBC batch upserts in one transaction
+@Service
+public class AssessmentWriteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssessmentWriteService.class);
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private AssessmentBatchRepository assessmentBatchRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Assessment create(User user, AssessmentDto assessmentDto) {
+        Assessment assessment = new Assessment();
+        assessment.setName(assessmentDto.getName());
+        assessment.setDescription(assessmentDto.getDescription());
+        assessment.setStatus("DRAFT");
+        assessment.setUser(user);
+
+        Assessment savedAssessment = assessmentRepository.save(assessment);
+
+        // Blank answers are not stored for a new assessment
+        AssessmentChanges changes = apply(savedAssessment,
+                collectResponses(assessmentDto, true), collectAreaScores(assessmentDto, true), false);
+        eventPublisher.publishEvent(new AssessmentChangedEvent(AssessmentChangedEvent.Type.CREATED, savedAssessment.getId(),
+                user.getId(), null, savedAssessment.getStatus(), changes));
+
+        return savedAssessment;
+    }
+
+    @Transactional
+    public Assessment update(Assessment loaded, AssessmentDto assessmentDto) {
+        Assessment assessment = managed(loaded);
+        String previousStatus = assessment.getStatus();
+        assessment.setName(assessmentDto.getName());
+        assessment.setDescription(assessmentDto.getDescription());
+        assessment.setStatus(assessmentDto.getStatus());
+
+        AssessmentChanges changes = apply(assessment,
+                collectResponses(assessmentDto, false), collectAreaScores(assessmentDto, false), true);
+        if (!changes.isEmpty()) {
+            assessment.setUpdatedAt(LocalDateTime.now());
+        }
+        eventPublisher.publishEvent(new AssessmentChangedEvent(AssessmentChangedEvent.Type.UPDATED, assessment.getId(),
+                assessment.getUser().getId(), previousStatus, assessment.getStatus(), changes));
+
+        return assessmentRepository.save(assessment);
+    }
+
+    // Applies a small set of edits, e.g. a single autosaved answer; unknown ids are rejected
+    @Transactional
+    public AssessmentChanges patch(Assessment loaded, Map<Long, ValueEdit> responseEdits, Map<Long, ValueEdit> scoreEdits) {
+        validate(responseEdits, scoreEdits);
+
+        Assessment assessment = managed(loaded);
+        AssessmentChanges changes = apply(assessment, responseEdits, scoreEdits, true);
+        if (!changes.isEmpty()) {
+            assessment.setUpdatedAt(LocalDateTime.now());
+            assessmentRepository.save(assessment);
+            eventPublisher.publishEvent(new AssessmentChangedEvent(AssessmentChangedEvent.Type.UPDATED, assessment.getId(),
+                    assessment.getUser().getId(), assessment.getStatus(), assessment.getStatus(), changes));
+        }
+        return changes;
+    }
+
+    @Transactional
+    public void delete(Assessment loaded) {
+        Assessment assessment = managed(loaded);
+        // Published first, so listeners running in this transaction can still read the assessment's rows
+        eventPublisher.publishEvent(new AssessmentChangedEvent(AssessmentChangedEvent.Type.DELETED, assessment.getId(),
+                assessment.getUser().getId(), assessment.getStatus(), assessment.getStatus(),
+                new AssessmentChanges(assessment.getId(), Collections.emptyList(), Collections.emptyList())));
+        assessmentRepository.delete(assessment);
+    }
+
+    // Writes edits collected by the autosave buffer; edits of an assessment deleted in the meantime are dropped
+    @Transactional
+    public AssessmentChanges flush(Long assessmentId, Map<Long, ValueEdit> responseEdits, Map<Long, ValueEdit> scoreEdits) {
+        Optional<Assessment> assessment = assessmentRepository.findById(assessmentId);
+        if (assessment.isEmpty()) {
+            logger.debug("Dropping buffered edits of deleted assessment {}", assessmentId);
+            return new AssessmentChanges(assessmentId, Collections.emptyList(), Collections.emptyList());
+        }
+        return patch(assessment.get(), responseEdits, scoreEdits);
+    }
+
+    // Controllers load assessments outside this transaction. Saving such a detached instance merges it,
+    // which cascades into all of its responses and area scores, so changes go to the managed instance.
+    private Assessment managed(Assessment assessment) {
+        return assessmentRepository.findById(assessment.getId())
+                .orElseThrow(() -> new RuntimeException("Error: Assessment not found."));
+    }
+
+    public void validate(Map<Long, ValueEdit> responseEdits, Map<Long, ValueEdit> scoreEdits) {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        for (Map.Entry<Long, ValueEdit> entry : responseEdits.entrySet()) {
+            if (catalog.getRequirement(entry.getKey()) == null) {
+                throw new IllegalArgumentException("Error: Requirement " + entry.getKey() + " does not exist.");
+            }
+            ResponseValue.fromLabel(entry.getValue().getValue());
+        }
+        for (Map.Entry<Long, ValueEdit> entry : scoreEdits.entrySet()) {
+            if (catalog.getArea(entry.getKey()) == null) {
+                throw new IllegalArgumentException("Error: Area " + entry.getKey() + " does not exist.");
+            }
+            AreaScoreValue.fromLabel(entry.getValue().getValue());
+        }
+    }
+
+    private AssessmentChanges apply(Assessment assessment, Map<Long, ValueEdit> responseEdits, Map<Long, ValueEdit> scoreEdits,
+                                    boolean existing) {
+        Long assessmentId = assessment.getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (existing) {
+            // Writers of one assessment take turns; locking only its rows cannot cover rows that
+            // another writer inserts concurrently, and such crossings deadlock
+            assessmentBatchRepository.lockAssessment(assessmentId);
+        }
+        Map<Long, AssessmentBatchRepository.StoredValue> currentResponses = existing
+                ? assessmentBatchRepository.lockResponses(assessmentId, responseEdits.keySet()) : Collections.emptyMap();
+        Map<Long, AssessmentBatchRepository.StoredValue> currentScores = existing
+                ? assessmentBatchRepository.lockAreaScores(assessmentId, scoreEdits.keySet()) : Collections.emptyMap();
+
+        List<ValueChange> responseChanges = diff(responseEdits, currentResponses);
+        List<ValueChange> scoreChanges = diff(scoreEdits, currentScores);
+
+        assessmentBatchRepository.upsertResponses(assessmentId, responseChanges, now);
+        assessmentBatchRepository.upsertAreaScores(assessmentId, scoreChanges, now);
+
+        logger.debug("Assessment {}: wrote {} response(s) and {} area score(s)",
+                assessmentId, responseChanges.size(), scoreChanges.size());
+        return new AssessmentChanges(assessmentId, responseChanges, scoreChanges);
+    }
+
+    private static List<ValueChange> diff(Map<Long, ValueEdit> edits, Map<Long, AssessmentBatchRepository.StoredValue> current) {
+        List<ValueChange> changes = new ArrayList<>();
+        for (Map.Entry<Long, ValueEdit> entry : edits.entrySet()) {
+            ValueEdit edit = entry.getValue();
+            AssessmentBatchRepository.StoredValue stored = current.get(entry.getKey());
+            String oldValue = stored == null ? null : stored.getValue();
+            String oldComment = stored == null ? null : stored.getComment();
+            if (stored == null || ValueChange.differs(oldValue, oldComment, edit.getValue(), edit.getComment())) {
+                changes.add(new ValueChange(entry.getKey(), oldValue, edit.getValue(), oldComment, edit.getComment()));
+            }
+        }
+        return changes;
+    }
+
+    private Map<Long, ValueEdit> collectResponses(AssessmentDto assessmentDto, boolean skipBlank) {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        Map<Long, ValueEdit> edits = new LinkedHashMap<>();
+        for (AssessmentDto.AreaDto areaDto : areas(assessmentDto)) {
+            if (areaDto.getRequirements() == null) {
+                continue;
+            }
+            for (AssessmentDto.RequirementDto reqDto : areaDto.getRequirements()) {
+                if (reqDto.getValue() == null || (skipBlank && reqDto.getValue().isEmpty())) {
+                    continue;
+                }
+                if (catalog.getRequirement(reqDto.getId()) == null) {
+                    logger.debug("Skipping response for unknown requirement {}", reqDto.getId());
+                    continue;
+                }
+                // Only the known answers can be stored; anything else is rejected with the whole request
+                ResponseValue.fromLabel(reqDto.getValue());
+                edits.put(reqDto.getId(), new ValueEdit(reqDto.getValue(), reqDto.getComment()));
+            }
+        }
+        return edits;
+    }
+
+    private Map<Long, ValueEdit> collectAreaScores(AssessmentDto assessmentDto, boolean skipBlank) {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        Map<Long, ValueEdit> edits = new LinkedHashMap<>();
+        for (AssessmentDto.AreaDto areaDto : areas(assessmentDto)) {
+            if (areaDto.getScore() == null || (skipBlank && areaDto.getScore().isEmpty())) {
+                continue;
+            }
+            if (catalog.getArea(areaDto.getId()) == null) {
+                logger.debug("Skipping score for unknown area {}", areaDto.getId());
+                continue;
+            }
+            AreaScoreValue.fromLabel(areaDto.getScore());
+            edits.put(areaDto.getId(), new ValueEdit(areaDto.getScore(), areaDto.getComment()));
+        }
+        return edits;
+    }
+
+    private static List<AssessmentDto.AreaDto> areas(AssessmentDto assessmentDto) {
+        List<AssessmentDto.AreaDto> areas = new ArrayList<>();
+        if (assessmentDto.getChapters() != null) {
+            for (AssessmentDto.ChapterDto chapterDto : assessmentDto.getChapters()) {
+                if (chapterDto.getAreas() != null) {
+                    areas.addAll(chapterDto.getAreas());
+                }
+            }
+        }
+        return areas;
+    }
+}
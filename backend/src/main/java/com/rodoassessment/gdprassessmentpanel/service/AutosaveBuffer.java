@@ -0,0 +1,264 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.rodoassessment.gdprassessmentpanel.config.ReadWriteRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Optional write-behind layer for autosave. Repeated edits of the same response or area score are
+// coalesced in memory and written in batches on a short interval or once too many edits are pending.
+// Reads overlay the buffered edits, so the author always sees what they typed. A batch that cannot be
+// written goes back into the buffer, under any newer edits of the same rows, and is retried with the next
+// flush; after max-attempts failed flushes it is parked as a dead letter, counted by a gauge and logged
+// with its values, instead of being dropped.
+@Service
+public class AutosaveBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutosaveBuffer.class);
+
+    @Autowired
+    private AssessmentWriteService assessmentWriteService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.autosave.write-behind.enabled}")
+    private boolean enabled;
+
+    @Value("${app.autosave.write-behind.max-pending}")
+    private int maxPending;
+
+    @Value("${app.autosave.write-behind.max-attempts}")
+    private int maxAttempts;
+
+    private final ConcurrentHashMap<Long, PendingEdits> pending = new ConcurrentHashMap<>();
+
+    // Edits taken out of the buffer whose transaction has not committed yet; still overlaid on reads
+    private final ConcurrentHashMap<Long, PendingEdits> inFlight = new ConcurrentHashMap<>();
+
+    // Edits that failed max-attempts flushes; no longer overlaid on reads, since they are not saved
+    private final ConcurrentHashMap<Long, PendingEdits> deadLetters = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Counter submittedEdits;
+    private Counter coalescedEdits;
+    private Counter flushedEdits;
+    private Counter failedEdits;
+    private Counter retriedEdits;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("autosave.pending.edits", pendingCount, AtomicInteger::get)
+                .description("Edits waiting in the write-behind buffer")
+                .register(meterRegistry);
+        submittedEdits = Counter.builder("autosave.submitted.edits").register(meterRegistry);
+        coalescedEdits = Counter.builder("autosave.coalesced.edits")
+                .description("Edits that replaced a still pending edit of the same row")
+                .register(meterRegistry);
+        flushedEdits = Counter.builder("autosave.flushed.edits").register(meterRegistry);
+        failedEdits = Counter.builder("autosave.failed.edits").register(meterRegistry);
+        retriedEdits = Counter.builder("autosave.retried.edits")
+                .description("Edits put back into the buffer after a failed flush")
+                .register(meterRegistry);
+        Gauge.builder("autosave.dead.letter.edits", deadLetters,
+                        letters -> letters.values().stream().mapToInt(PendingEdits::size).sum())
+                .description("Edits given up on after repeated failed flushes")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("autosave.flush").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ownerId is the assessment's owner, whose reads are pinned to the primary once the edits are flushed
+    public void submit(Long assessmentId, Long ownerId, Map<Long, ValueEdit> responseEdits, Map<Long, ValueEdit> scoreEdits) {
+        int[] added = new int[1];
+        pending.compute(assessmentId, (id, edits) -> {
+            if (edits == null) {
+                edits = new PendingEdits(ownerId);
+            }
+            added[0] += merge(edits.responses, responseEdits);
+            added[0] += merge(edits.areaScores, scoreEdits);
+            return edits;
+        });
+
+        int submitted = responseEdits.size() + scoreEdits.size();
+        submittedEdits.increment(submitted);
+        coalescedEdits.increment(submitted - added[0]);
+
+        if (pendingCount.addAndGet(added[0]) >= maxPending) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    // Puts buffered edits of the assessment over the values read from the database
+    public void overlay(Long assessmentId, Map<Long, ValueEdit> responses, Map<Long, ValueEdit> areaScores) {
+        for (Map<Long, PendingEdits> source : List.of(inFlight, pending)) {
+            PendingEdits edits = source.get(assessmentId);
+            if (edits != null) {
+                responses.putAll(edits.responses);
+                areaScores.putAll(edits.areaScores);
+            }
+        }
+    }
+
+    public boolean hasPendingEdits(Long assessmentId) {
+        return pending.containsKey(assessmentId) || inFlight.containsKey(assessmentId);
+    }
+
+    // Drops the buffered edits of an assessment that is about to be replaced or deleted. Waits for a running
+    // flush, so an older batch of the assessment cannot be written after the caller's change.
+    public void discard(Long assessmentId) {
+        flushLock.lock();
+        try {
+            PendingEdits edits = pending.remove(assessmentId);
+            if (edits != null) {
+                pendingCount.addAndGet(-edits.size());
+            }
+            inFlight.remove(assessmentId);
+            deadLetters.remove(assessmentId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.autosave.write-behind.flush-interval-ms}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                logger.info("Flushing {} buffered edit(s) before shutdown", pendingCount.get());
+                flushPending();
+            }
+            if (!pending.isEmpty() || !deadLetters.isEmpty()) {
+                logger.error("Shutting down with {} unsaved buffered edit(s) and {} dead-lettered assessment(s)",
+                        pendingCount.get(), deadLetters.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        for (Long assessmentId : new ArrayList<>(pending.keySet())) {
+            PendingEdits edits = pending.get(assessmentId);
+            if (edits == null) {
+                continue;
+            }
+            // Publish the edits as in flight before taking them out of the buffer, so reads never miss them
+            inFlight.put(assessmentId, edits);
+            if (!pending.remove(assessmentId, edits)) {
+                inFlight.remove(assessmentId, edits);
+                continue;
+            }
+            pendingCount.addAndGet(-edits.size());
+            try {
+                flushTimer.record(() -> ReadWriteRoutingDataSource.writeFor(edits.ownerId,
+                        () -> assessmentWriteService.flush(assessmentId, new HashMap<>(edits.responses), new HashMap<>(edits.areaScores))));
+                flushedEdits.increment(edits.size());
+            } catch (Exception e) {
+                failedEdits.increment(edits.size());
+                // Back into the buffer before leaving flight, so reads never miss the edits
+                retryOrPark(assessmentId, edits, e);
+            } finally {
+                inFlight.remove(assessmentId);
+            }
+        }
+    }
+
+    private void retryOrPark(Long assessmentId, PendingEdits failed, Exception cause) {
+        int attempts = failed.attempts + 1;
+        if (attempts >= maxAttempts) {
+            deadLetters.merge(assessmentId, failed, (older, newer) -> {
+                older.responses.putAll(newer.responses);
+                older.areaScores.putAll(newer.areaScores);
+                return older;
+            });
+            logger.error("Giving up on {} buffered edit(s) of assessment {} after {} attempt(s): {}; responses {}, area scores {}",
+                    failed.size(), assessmentId, attempts, cause.getMessage(), failed.responses, failed.areaScores);
+            return;
+        }
+        int[] added = new int[1];
+        pending.compute(assessmentId, (id, newer) -> {
+            PendingEdits retry = new PendingEdits(failed.ownerId);
+            retry.attempts = attempts;
+            retry.responses.putAll(failed.responses);
+            retry.areaScores.putAll(failed.areaScores);
+            // Edits submitted since the batch was taken out are newer and win
+            if (newer != null) {
+                retry.responses.putAll(newer.responses);
+                retry.areaScores.putAll(newer.areaScores);
+            }
+            added[0] = retry.size() - (newer == null ? 0 : newer.size());
+            return retry;
+        });
+        pendingCount.addAndGet(added[0]);
+        retriedEdits.increment(failed.size());
+        logger.warn("Cannot flush {} buffered edit(s) of assessment {} (attempt {} of {}), retrying: {}",
+                failed.size(), assessmentId, attempts, maxAttempts, cause.getMessage());
+    }
+
+    private static int merge(Map<Long, ValueEdit> target, Map<Long, ValueEdit> edits) {
+        int added = 0;
+        for (Map.Entry<Long, ValueEdit> entry : edits.entrySet()) {
+            if (target.put(entry.getKey(), entry.getValue()) == null) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static class PendingEdits {
+        final Long ownerId;
+        final Map<Long, ValueEdit> responses = new ConcurrentHashMap<>();
+        final Map<Long, ValueEdit> areaScores = new ConcurrentHashMap<>();
+        // Failed flushes of these edits so far
+        int attempts;
+
+        PendingEdits(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        int size() {
+            return responses.size() + areaScores.size();
+        }
+    }
+}
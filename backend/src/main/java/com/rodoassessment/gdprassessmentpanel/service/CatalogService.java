@@ -0,0 +1,194 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.config.HibernateCacheConfig;
+import com.rodoassessment.gdprassessmentpanel.config.ReadWriteRoutingDataSource;
+import com.rodoassessment.gdprassessmentpanel.model.Area;
+import com.rodoassessment.gdprassessmentpanel.model.Chapter;
+import com.rodoassessment.gdprassessmentpanel.model.Requirement;
+import com.rodoassessment.gdprassessmentpanel.repository.AreaRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ChapterRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.RequirementRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Holds the questionnaire catalog in memory. Readers always see one complete, immutable snapshot;
+// edits build a new snapshot and swap it in atomically.
+@Service
+public class CatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogService.class);
+
+    private static final Comparator<Chapter> CHAPTER_ORDER =
+            Comparator.comparing(Chapter::getOrderNumber).thenComparing(Chapter::getId);
+    private static final Comparator<Area> AREA_ORDER =
+            Comparator.comparing(Area::getOrderNumber).thenComparing(Area::getId);
+    private static final Comparator<Requirement> REQUIREMENT_ORDER =
+            Comparator.comparing(Requirement::getOrderNumber).thenComparing(Requirement::getId);
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private RequirementRepository requirementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getSnapshot();
+        } catch (Exception e) {
+            logger.error("Cannot preload questionnaire catalog: {}", e.getMessage());
+        }
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current == null) {
+                    current = refresh();
+                }
+            }
+        }
+        return current;
+    }
+
+    public synchronized CatalogSnapshot refresh() {
+        CatalogSnapshot previous = snapshot.get();
+
+        // Catalog rows may have been edited in the database directly, so the second-level cache goes first
+        evictSecondLevelCache();
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        // Refreshes follow catalog edits on the primary, which a replica may not have applied yet
+        CatalogSnapshot loaded = ReadWriteRoutingDataSource.readFromPrimary(
+                () -> template.execute(status -> load(previous == null ? 1 : previous.getVersion() + 1)));
+
+        if (previous != null && previous.getFingerprint().equals(loaded.getFingerprint())) {
+            return previous;
+        }
+
+        snapshot.set(loaded);
+        logger.info("Loaded questionnaire catalog version {} ({} chapters, {} areas, {} requirements)",
+                loaded.getVersion(), loaded.getChapters().size(), loaded.getAreaCount(), loaded.getRequirementCount());
+        return loaded;
+    }
+
+    // Called when catalog entities change; the new snapshot is built only after the change is committed
+    public void catalogChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private void evictSecondLevelCache() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Chapter.class);
+        cache.evictEntityData(Area.class);
+        cache.evictEntityData(Requirement.class);
+        cache.evictQueryRegion(HibernateCacheConfig.CATALOG_QUERY_REGION);
+    }
+
+    private CatalogSnapshot load(long version) {
+        List<Chapter> chapters = new ArrayList<>(chapterRepository.findAllByOrderByOrderNumberAsc());
+        List<Area> areas = new ArrayList<>(areaRepository.findAllWithChapterOrdered());
+        List<Requirement> requirements = new ArrayList<>(requirementRepository.findAllWithAreaOrdered());
+
+        chapters.sort(CHAPTER_ORDER);
+        areas.sort(AREA_ORDER);
+        requirements.sort(REQUIREMENT_ORDER);
+
+        MessageDigest digest = sha256();
+
+        Map<Long, List<CatalogSnapshot.RequirementNode>> requirementsByArea = new HashMap<>();
+        Map<Long, CatalogSnapshot.RequirementNode> requirementsById = new HashMap<>();
+        for (Requirement requirement : requirements) {
+            CatalogSnapshot.RequirementNode node = new CatalogSnapshot.RequirementNode(
+                    requirement.getId(), requirement.getArea().getId(), requirement.getText(), requirement.getOrderNumber());
+            requirementsByArea.computeIfAbsent(node.getAreaId(), k -> new ArrayList<>()).add(node);
+            requirementsById.put(node.getId(), node);
+        }
+
+        Map<Long, List<CatalogSnapshot.AreaNode>> areasByChapter = new HashMap<>();
+        Map<Long, CatalogSnapshot.AreaNode> areasById = new HashMap<>();
+        for (Area area : areas) {
+            CatalogSnapshot.AreaNode node = new CatalogSnapshot.AreaNode(
+                    area.getId(), area.getChapter().getId(), area.getName(), area.getDescription(), area.getOrderNumber(),
+                    area.getWeight() == null ? 1.0 : area.getWeight(),
+                    List.copyOf(requirementsByArea.getOrDefault(area.getId(), Collections.emptyList())));
+            areasByChapter.computeIfAbsent(node.getChapterId(), k -> new ArrayList<>()).add(node);
+            areasById.put(node.getId(), node);
+        }
+
+        List<CatalogSnapshot.ChapterNode> chapterNodes = new ArrayList<>(chapters.size());
+        Map<Long, CatalogSnapshot.ChapterNode> chaptersById = new HashMap<>();
+        for (Chapter chapter : chapters) {
+            CatalogSnapshot.ChapterNode node = new CatalogSnapshot.ChapterNode(
+                    chapter.getId(), chapter.getName(), chapter.getDescription(), chapter.getOrderNumber(),
+                    List.copyOf(areasByChapter.getOrDefault(chapter.getId(), Collections.emptyList())));
+            chapterNodes.add(node);
+            chaptersById.put(node.getId(), node);
+
+            update(digest, "C", chapter.getId(), chapter.getOrderNumber(), chapter.getName(), chapter.getDescription());
+            for (CatalogSnapshot.AreaNode area : node.getAreas()) {
+                update(digest, "A", area.getId(), area.getOrderNumber(), area.getName(), area.getDescription() + '|' + area.getWeight());
+                for (CatalogSnapshot.RequirementNode requirement : area.getRequirements()) {
+                    update(digest, "R", requirement.getId(), requirement.getOrderNumber(), requirement.getText(), null);
+                }
+            }
+        }
+
+        return new CatalogSnapshot(version, HexFormat.of().formatHex(digest.digest()), Instant.now(),
+                List.copyOf(chapterNodes), Map.copyOf(chaptersById), Map.copyOf(areasById), Map.copyOf(requirementsById));
+    }
+
+    private static void update(MessageDigest digest, String kind, Long id, Integer orderNumber, String text, String description) {
+        String line = kind + '|' + id + '|' + orderNumber + '|' + text + '|' + description + '\n';
+        digest.update(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Value
+public class CatalogSnapshot {
+
+    long version;
+    String fingerprint;
+    Instant loadedAt;
+    List<ChapterNode> chapters;
+    Map<Long, ChapterNode> chaptersById;
+    Map<Long, AreaNode> areasById;
+    Map<Long, RequirementNode> requirementsById;
+
+    public AreaNode getArea(Long id) {
+        return id == null ? null : areasById.get(id);
+    }
+
+    public RequirementNode getRequirement(Long id) {
+        return id == null ? null : requirementsById.get(id);
+    }
+
+    public int getRequirementCount() {
+        return requirementsById.size();
+    }
+
+    public int getAreaCount() {
+        return areasById.size();
+    }
+
+    @Value
+    public static class ChapterNode {
+        Long id;
+        String name;
+        String description;
+        Integer orderNumber;
+        List<AreaNode> areas;
+    }
+
+    @Value
+    public static class AreaNode {
+        Long id;
+        Long chapterId;
+        String name;
+        String description;
+        Integer orderNumber;
+        double weight;
+        List<RequirementNode> requirements;
+    }
+
+    @Value
+    public static class RequirementNode {
+        Long id;
+        Long areaId;
+        String text;
+        Integer orderNumber;
+    }
+}
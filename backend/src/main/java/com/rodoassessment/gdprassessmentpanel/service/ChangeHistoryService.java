@@ -0,0 +1,310 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.ChangeHistoryPage;
+import com.rodoassessment.gdprassessmentpanel.repository.AssessmentEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Append-only change history. Committed changes are put into a bounded in-memory buffer and a single
+// background writer drains it into assessment_events with JDBC batch inserts, so recording history adds
+// no database round trip to the request. When the buffer is full the publishing thread waits for room
+// (backpressure that keeps ids in commit order, which history pages rely on). A batch that cannot be
+// written is retried with backoff until it is stored; entries the database rejects outright are logged
+// in full and skipped. Entries still buffered at shutdown are written by the stopping thread.
+@Service
+public class ChangeHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeHistoryService.class);
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final long POLL_INTERVAL_MS = 200;
+    private static final long RETRY_INITIAL_MS = 200;
+    private static final long RETRY_MAX_MS = 30_000;
+
+    @Autowired
+    private AssessmentEventRepository assessmentEventRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.history.buffer-capacity}")
+    private int bufferCapacity;
+
+    @Value("${app.history.batch-size}")
+    private int batchSize;
+
+    @Value("${app.history.shutdown-timeout-ms}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<AssessmentEventRepository.Entry> buffer;
+    private Thread writer;
+    private volatile boolean running = true;
+    // Batch the writer had not stored when it stopped; written by stop()
+    private volatile List<AssessmentEventRepository.Entry> unwritten = new ArrayList<>();
+
+    private Counter writtenEvents;
+    private Counter callerWaits;
+    private Counter retriedBatches;
+    private Counter failedEvents;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+
+        Gauge.builder("history.buffer.depth", buffer, BlockingQueue::size)
+                .description("History entries waiting for the background writer")
+                .register(meterRegistry);
+        writtenEvents = Counter.builder("history.written.events").register(meterRegistry);
+        callerWaits = Counter.builder("history.caller.waits")
+                .description("Changes whose publishing thread waited because the history buffer was full")
+                .register(meterRegistry);
+        retriedBatches = Counter.builder("history.retried.batches")
+                .description("Failed history batch inserts that are retried")
+                .register(meterRegistry);
+        failedEvents = Counter.builder("history.failed.events")
+                .description("History entries rejected by the database or left unwritten at shutdown")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("history.batch").register(meterRegistry);
+
+        writer = new Thread(this::drain, "history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(shutdownTimeoutMs);
+        if (writer.isAlive()) {
+            // Typically waiting to retry a failed batch, which it then leaves in unwritten
+            writer.interrupt();
+            writer.join(shutdownTimeoutMs);
+        }
+        if (writer.isAlive()) {
+            logger.warn("History writer did not stop in time; writing the remaining entries alongside it");
+        }
+        List<AssessmentEventRepository.Entry> remaining = new ArrayList<>(unwritten);
+        buffer.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        logger.info("Writing {} history entry(ies) left at shutdown", remaining.size());
+        writeNow(remaining);
+    }
+
+    // Runs after the writing transaction committed, so rolled back changes never show up in the history
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        List<AssessmentEventRepository.Entry> entries = toEntries(event, LocalDateTime.now());
+        if (!running) {
+            // Late changes during shutdown, e.g. the final autosave flush, are written directly
+            writeNow(entries);
+            return;
+        }
+        boolean waited = false;
+        int next = 0;
+        try {
+            for (; next < entries.size(); next++) {
+                if (buffer.offer(entries.get(next))) {
+                    continue;
+                }
+                if (!waited) {
+                    callerWaits.increment();
+                    waited = true;
+                }
+                // The writer stops taking entries once shutdown begins; the rest is written right here
+                while (!buffer.offer(entries.get(next), POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    if (!running) {
+                        writeNow(entries.subList(next, entries.size()));
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeNow(entries.subList(next, entries.size()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeHistoryPage findPage(Long assessmentId, AssessmentEventRepository.Filter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Long beforeId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                beforeId = Long.valueOf(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Error: Invalid cursor.");
+            }
+        }
+
+        // One row more than requested tells whether another page exists
+        List<AssessmentEventRepository.StoredEntry> rows =
+                assessmentEventRepository.findPage(assessmentId, filter, beforeId, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = String.valueOf(rows.get(pageSize - 1).getId());
+        }
+
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        List<ChangeHistoryPage.ChangeDto> items = new ArrayList<>(rows.size());
+        for (AssessmentEventRepository.StoredEntry row : rows) {
+            items.add(new ChangeHistoryPage.ChangeDto(row.getId(), row.getEventType(), row.getItemId(),
+                    itemName(catalog, row.getEventType(), row.getItemId()), row.getOldValue(), row.getNewValue(),
+                    row.getOldComment(), row.getNewComment(), row.getUserId(), row.getUsername(), row.getCreatedAt()));
+        }
+        return new ChangeHistoryPage(items, nextCursor);
+    }
+
+    private void drain() {
+        List<AssessmentEventRepository.Entry> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !buffer.isEmpty()) {
+                AssessmentEventRepository.Entry first = buffer.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever piled up while the previous batch was written goes out in the next one
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                if (!writeWithRetry(batch)) {
+                    return;
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            unwritten = new ArrayList<>(batch);
+        }
+    }
+
+    // Retries with growing pauses until the batch is stored; false when shutdown began before it was
+    private boolean writeWithRetry(List<AssessmentEventRepository.Entry> batch) throws InterruptedException {
+        long backoffMs = RETRY_INITIAL_MS;
+        while (!write(batch)) {
+            if (!running) {
+                return false;
+            }
+            retriedBatches.increment();
+            Thread.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, RETRY_MAX_MS);
+        }
+        return true;
+    }
+
+    // False when the entries could not be written and should be tried again. Entries the database rejects
+    // would fail every retry, so a rejected batch is written entry by entry and only those are dropped.
+    private boolean write(List<AssessmentEventRepository.Entry> entries) {
+        try {
+            insert(entries);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (entries.size() == 1) {
+                failedEvents.increment();
+                logger.error("History entry rejected by the database, skipped: {}: {}", entries.get(0), e.getMessage());
+                return true;
+            }
+            for (AssessmentEventRepository.Entry entry : entries) {
+                if (!write(List.of(entry))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("Cannot write {} history entry(ies): {}", entries.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Single attempt on the calling thread, when there is no writer left to retry; what fails is logged in
+    // full, so it can be restored from the log
+    private void writeNow(List<AssessmentEventRepository.Entry> entries) {
+        if (!write(entries)) {
+            failedEvents.increment(entries.size());
+            entries.forEach(entry -> logger.error("History entry not written: {}", entry));
+        }
+    }
+
+    private void insert(List<AssessmentEventRepository.Entry> entries) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        batchTimer.record(() -> template.executeWithoutResult(status -> assessmentEventRepository.insert(entries)));
+        writtenEvents.increment(entries.size());
+    }
+
+    private static List<AssessmentEventRepository.Entry> toEntries(AssessmentChangedEvent event, LocalDateTime now) {
+        List<AssessmentEventRepository.Entry> entries = new ArrayList<>();
+        Long assessmentId = event.getAssessmentId();
+        Long userId = event.getUserId();
+
+        switch (event.getType()) {
+            case CREATED -> entries.add(new AssessmentEventRepository.Entry(assessmentId, userId, "CREATED", null,
+                    null, event.getStatus(), null, null, now));
+            case DELETED -> entries.add(new AssessmentEventRepository.Entry(assessmentId, userId, "DELETED", null,
+                    event.getStatus(), null, null, null, now));
+            default -> {
+                if (event.isStatusChanged()) {
+                    entries.add(new AssessmentEventRepository.Entry(assessmentId, userId, "STATUS", null,
+                            event.getPreviousStatus(), event.getStatus(), null, null, now));
+                }
+            }
+        }
+        for (ValueChange change : event.getChanges().getResponses()) {
+            entries.add(toEntry(assessmentId, userId, "RESPONSE", change, now));
+        }
+        for (ValueChange change : event.getChanges().getAreaScores()) {
+            entries.add(toEntry(assessmentId, userId, "AREA_SCORE", change, now));
+        }
+        return entries;
+    }
+
+    private static AssessmentEventRepository.Entry toEntry(Long assessmentId, Long userId, String type,
+                                                           ValueChange change, LocalDateTime now) {
+        return new AssessmentEventRepository.Entry(assessmentId, userId, type, change.getItemId(),
+                change.getOldValue(), change.getNewValue(), change.getOldComment(), change.getNewComment(), now);
+    }
+
+    private static String itemName(CatalogSnapshot catalog, String type, Long itemId) {
+        if (itemId == null) {
+            return null;
+        }
+        if ("RESPONSE".equals(type)) {
+            CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(itemId);
+            return requirement == null ? null : requirement.getText();
+        }
+        CatalogSnapshot.AreaNode area = catalog.getArea(itemId);
+        return area == null ? null : area.getName();
+    }
+}
@@ -0,0 +1,236 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+
+import java.util.*;
+
+// Answers of all assessments held in memory column-wise. Assessments, users, statuses and requirements get
+// dense int ids in the order they are first seen; the owner and status of an assessment are primitive arrays
+// indexed by its dense id, and every user, status and (requirement, answer) pair has a bitmap of the
+// assessments it applies to. A filter is an AND of bitmaps, and counting the answers of a requirement within
+// it is a popcount over the AND, so a group-by over all requirements reads a few bitmaps per requirement.
+// Dense ids of deleted assessments are not reused; their bits are cleared and the space comes back on the
+// next load. Not thread-safe; ColumnStoreService guards it with a read-write lock.
+public class ColumnStore {
+
+    private static final int CODES = ResponseValue.values().length;
+
+    private final Map<Long, Integer> assessmentSlots = new HashMap<>();
+    private int[] assessmentUsers = new int[1024];
+    private int[] assessmentStatuses = new int[1024];
+    private int slotCount;
+    private final Bits live = new Bits();
+
+    private final Map<Long, Integer> userSlots = new HashMap<>();
+    private final List<Bits> userBits = new ArrayList<>();
+
+    private final Map<String, Integer> statusSlots = new HashMap<>();
+    private final List<String> statuses = new ArrayList<>();
+    private final List<Bits> statusBits = new ArrayList<>();
+
+    private final Map<Long, Integer> requirementSlots = new HashMap<>();
+    private final List<Long> requirementIds = new ArrayList<>();
+    // answerBits.get(requirement)[code]; the BLANK entry stays unused, blank answers are not stored
+    private final List<Bits[]> answerBits = new ArrayList<>();
+
+    // Adds the assessment or moves an existing one to the given owner and status
+    public void putAssessment(long assessmentId, long userId, String status) {
+        Integer slot = assessmentSlots.get(assessmentId);
+        if (slot == null) {
+            slot = slotCount++;
+            if (slot == assessmentUsers.length) {
+                int capacity = assessmentUsers.length * 2;
+                assessmentUsers = Arrays.copyOf(assessmentUsers, capacity);
+                assessmentStatuses = Arrays.copyOf(assessmentStatuses, capacity);
+            }
+            assessmentSlots.put(assessmentId, slot);
+            live.set(slot);
+        } else {
+            userBits.get(assessmentUsers[slot]).clear(slot);
+            statusBits.get(assessmentStatuses[slot]).clear(slot);
+        }
+        int user = userSlots.computeIfAbsent(userId, id -> {
+            userBits.add(new Bits());
+            return userBits.size() - 1;
+        });
+        assessmentUsers[slot] = user;
+        userBits.get(user).set(slot);
+        int statusSlot = statusSlot(status);
+        assessmentStatuses[slot] = statusSlot;
+        statusBits.get(statusSlot).set(slot);
+    }
+
+    // Answers of unknown assessments are ignored; they arrive with the assessment on the next load
+    public void setAnswer(long assessmentId, long requirementId, ResponseValue value) {
+        Integer slot = assessmentSlots.get(assessmentId);
+        if (slot == null) {
+            return;
+        }
+        Bits[] bits = answerBits(requirementId);
+        for (int code = 1; code < CODES; code++) {
+            bits[code].clear(slot);
+        }
+        if (value.isAnswered()) {
+            bits[value.getCode()].set(slot);
+        }
+    }
+
+    public void removeAssessment(long assessmentId) {
+        Integer slot = assessmentSlots.remove(assessmentId);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        userBits.get(assessmentUsers[slot]).clear(slot);
+        statusBits.get(assessmentStatuses[slot]).clear(slot);
+        for (Bits[] bits : answerBits) {
+            for (int code = 1; code < CODES; code++) {
+                bits[code].clear(slot);
+            }
+        }
+    }
+
+    // Assessments of the given user and status; null leaves the dimension unfiltered
+    public Bits select(Long userId, String status) {
+        Bits selected = live.copy();
+        if (userId != null) {
+            Integer user = userSlots.get(userId);
+            selected.and(user == null ? new Bits() : userBits.get(user));
+        }
+        if (status != null) {
+            Integer statusSlot = statusSlots.get(status);
+            selected.and(statusSlot == null ? new Bits() : statusBits.get(statusSlot));
+        }
+        return selected;
+    }
+
+    // The selected assessments split by status
+    public Map<String, Bits> groupByStatus(Bits selected) {
+        Map<String, Bits> groups = new TreeMap<>();
+        for (int i = 0; i < statuses.size(); i++) {
+            Bits group = statusBits.get(i).copy();
+            group.and(selected);
+            if (group.cardinality() > 0) {
+                groups.put(statuses.get(i), group);
+            }
+        }
+        return groups;
+    }
+
+    public Collection<Long> getRequirementIds() {
+        return Collections.unmodifiableList(requirementIds);
+    }
+
+    // Number of each answer (indexed by code) to the requirement among the selected assessments
+    public long[] countAnswers(long requirementId, Bits selected) {
+        long[] counts = new long[CODES];
+        Integer requirement = requirementSlots.get(requirementId);
+        if (requirement != null) {
+            Bits[] bits = answerBits.get(requirement);
+            for (int code = 1; code < CODES; code++) {
+                counts[code] = bits[code].andCardinality(selected);
+            }
+        }
+        return counts;
+    }
+
+    public int getAssessmentCount() {
+        return assessmentSlots.size();
+    }
+
+    // Dense ids handed out, including those of deleted assessments
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    private int statusSlot(String status) {
+        return statusSlots.computeIfAbsent(status == null ? "" : status, key -> {
+            statuses.add(key);
+            statusBits.add(new Bits());
+            return statuses.size() - 1;
+        });
+    }
+
+    private Bits[] answerBits(long requirementId) {
+        int requirement = requirementSlots.computeIfAbsent(requirementId, id -> {
+            Bits[] bits = new Bits[CODES];
+            for (int code = 1; code < CODES; code++) {
+                bits[code] = new Bits();
+            }
+            requirementIds.add(id);
+            answerBits.add(bits);
+            return answerBits.size() - 1;
+        });
+        return answerBits.get(requirement);
+    }
+
+    // Bitmap over dense assessment ids that only allocates the words between its lowest and highest bit,
+    // so the bitmap of a user whose assessments are close together stays small however many there are
+    public static final class Bits {
+        private static final long[] NONE = new long[0];
+
+        private long[] words = NONE;
+        // Index of the word stored in words[0]
+        private int offset;
+
+        void set(int bit) {
+            int word = bit >>> 6;
+            ensure(word);
+            words[word - offset] |= 1L << bit;
+        }
+
+        void clear(int bit) {
+            int index = (bit >>> 6) - offset;
+            if (index >= 0 && index < words.length) {
+                words[index] &= ~(1L << bit);
+            }
+        }
+
+        Bits copy() {
+            Bits copy = new Bits();
+            copy.words = words.clone();
+            copy.offset = offset;
+            return copy;
+        }
+
+        // Keeps only the bits also set in other
+        void and(Bits other) {
+            for (int i = 0; i < words.length; i++) {
+                int index = offset + i - other.offset;
+                words[i] &= index >= 0 && index < other.words.length ? other.words[index] : 0L;
+            }
+        }
+
+        public long cardinality() {
+            long count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        long andCardinality(Bits other) {
+            int from = Math.max(offset, other.offset);
+            int to = Math.min(offset + words.length, other.offset + other.words.length);
+            long count = 0;
+            for (int word = from; word < to; word++) {
+                count += Long.bitCount(words[word - offset] & other.words[word - other.offset]);
+            }
+            return count;
+        }
+
+        private void ensure(int word) {
+            if (words.length == 0) {
+                words = new long[4];
+                offset = word;
+            } else if (word < offset) {
+                long[] grown = new long[words.length + (offset - word)];
+                System.arraycopy(words, 0, grown, offset - word, words.length);
+                words = grown;
+                offset = word;
+            } else if (word - offset >= words.length) {
+                words = Arrays.copyOf(words, Math.max(words.length * 2, word - offset + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.config.ReadWriteRoutingDataSource;
+import com.rodoassessment.gdprassessmentpanel.dto.AnalyticsLiveDto;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import com.rodoassessment.gdprassessmentpanel.repository.ColumnStoreRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Optional in-memory copy of all answers (app.analytics.columnar.enabled) for ad hoc filters and group-bys
+// that the materialized views do not cover, answered from ColumnStore in milliseconds. The store is loaded
+// from the database in the background on startup and then kept current from the committed write events;
+// events committed while it loads are replayed onto the loaded store before it replaces the previous one.
+@Service
+public class ColumnStoreService {
+
+    public enum GroupBy {
+        OVERALL(AnalyticsService.Level.OVERALL),
+        CHAPTER(AnalyticsService.Level.CHAPTER),
+        AREA(AnalyticsService.Level.AREA),
+        REQUIREMENT(AnalyticsService.Level.REQUIREMENT),
+        STATUS(null);
+
+        private final AnalyticsService.Level level;
+
+        GroupBy(AnalyticsService.Level level) {
+            this.level = level;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnStoreService.class);
+
+    private static final ResponseValue[] ANSWERS =
+            { ResponseValue.TAK, ResponseValue.NIE, ResponseValue.W_REALIZACJI, ResponseValue.ND };
+
+    @Autowired
+    private ColumnStoreRepository columnStoreRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.columnar.enabled}")
+    private boolean enabled;
+
+    @Value("${app.analytics.columnar.fetch-size}")
+    private int fetchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    // Guarded by lock; null until the first load has finished
+    private ColumnStore store;
+    private LocalDateTime loadedAt;
+    // Guarded by lock; events to replay onto the store being loaded, null when no load is running
+    private List<AssessmentChangedEvent> replay;
+
+    private ExecutorService executor;
+    private Timer loadTimer;
+    private Timer queryTimer;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "column-store-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("column.store.assessments", this, ColumnStoreService::getAssessmentCount)
+                .description("Assessments held in the in-memory column store")
+                .register(meterRegistry);
+        Gauge.builder("column.store.slots", this, ColumnStoreService::getSlotCount)
+                .description("Dense assessment ids handed out since the last load, including those of deleted assessments")
+                .register(meterRegistry);
+        loadTimer = Timer.builder("column.store.load").register(meterRegistry);
+        queryTimer = Timer.builder("column.store.query").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            requestLoad();
+        }
+    }
+
+    // Reloads the store in the background unless a load is already running; returns whether one was started.
+    // Queries keep using the previous store until the new one is complete.
+    public boolean requestLoad() {
+        if (!loading.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    load();
+                } finally {
+                    loading.set(false);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            loading.set(false);
+            throw e;
+        }
+    }
+
+    private void load() {
+        withWriteLock(() -> replay = new ArrayList<>());
+        try {
+            long start = System.nanoTime();
+            ColumnStore loaded = new ColumnStore();
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            // Both queries read one snapshot, so every answer belongs to an assessment that was read
+            template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            // Events are only replayed from the start of the load, which a replica may not have applied yet
+            ReadWriteRoutingDataSource.readFromPrimary(() -> template.execute(status -> {
+                columnStoreRepository.streamAssessments(fetchSize, loaded::putAssessment);
+                columnStoreRepository.streamResponses(fetchSize,
+                        (assessmentId, requirementId, code) -> loaded.setAnswer(assessmentId, requirementId, ResponseValue.fromCode(code)));
+                return null;
+            }));
+            int replayed = withWriteLock(() -> {
+                // Events committed before the snapshot are in it already; applying them again changes nothing
+                replay.forEach(event -> apply(loaded, event));
+                int count = replay.size();
+                store = loaded;
+                loadedAt = LocalDateTime.now();
+                replay = null;
+                return count;
+            });
+            long nanos = System.nanoTime() - start;
+            loadTimer.record(nanos, TimeUnit.NANOSECONDS);
+            logger.info("Loaded column store with {} assessments in {} ms ({} change(s) replayed)",
+                    loaded.getAssessmentCount(), nanos / 1_000_000, replayed);
+        } catch (Exception e) {
+            withWriteLock(() -> replay = null);
+            logger.error("Cannot load column store: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        withWriteLock(() -> {
+            if (replay != null) {
+                replay.add(event);
+            }
+            if (store != null) {
+                apply(store, event);
+            }
+            return null;
+        });
+    }
+
+    // userId and status narrow the assessments, chapterId and areaId the requirements counted
+    public AnalyticsLiveDto query(GroupBy groupBy, Long userId, String status, Long chapterId, Long areaId) {
+        if (!enabled) {
+            throw new IllegalStateException("Error: The column store is not enabled.");
+        }
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        long start = System.nanoTime();
+        AnalyticsLiveDto result = withReadLock(() -> {
+            if (store == null) {
+                throw new IllegalStateException("Error: The column store is still loading.");
+            }
+            ColumnStore.Bits selected = store.select(userId, status);
+            List<CatalogSnapshot.RequirementNode> requirements = new ArrayList<>();
+            for (Long requirementId : store.getRequirementIds()) {
+                CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(requirementId);
+                if (requirement != null && AnalyticsService.matches(catalog, requirement, chapterId, areaId)) {
+                    requirements.add(requirement);
+                }
+            }
+
+            List<AnalyticsLiveDto.GroupDto> groups = new ArrayList<>();
+            if (groupBy == GroupBy.STATUS) {
+                for (Map.Entry<String, ColumnStore.Bits> entry : store.groupByStatus(selected).entrySet()) {
+                    long[] counts = new long[ResponseValue.values().length];
+                    for (CatalogSnapshot.RequirementNode requirement : requirements) {
+                        add(counts, store.countAnswers(requirement.getId(), entry.getValue()));
+                    }
+                    groups.add(group(null, null, entry.getKey(), entry.getValue().cardinality(), counts));
+                }
+            } else {
+                Map<Long, long[]> totals = new HashMap<>();
+                for (CatalogSnapshot.RequirementNode requirement : requirements) {
+                    Long key = AnalyticsService.key(catalog, requirement, groupBy.level);
+                    add(totals.computeIfAbsent(key, id -> new long[ResponseValue.values().length]),
+                            store.countAnswers(requirement.getId(), selected));
+                }
+                if (groupBy == GroupBy.OVERALL) {
+                    groups.add(group(null, null, null, selected.cardinality(),
+                            totals.getOrDefault(null, new long[ResponseValue.values().length])));
+                } else {
+                    totals.entrySet().stream()
+                            .filter(entry -> entry.getKey() != null)
+                            .sorted(Map.Entry.comparingByKey())
+                            .forEach(entry -> groups.add(group(entry.getKey(),
+                                    AnalyticsService.name(catalog, groupBy.level, entry.getKey()), null, null, entry.getValue())));
+                }
+            }
+            return new AnalyticsLiveDto(loadedAt, groupBy.name(), selected.cardinality(), 0, groups);
+        });
+        long nanos = System.nanoTime() - start;
+        queryTimer.record(nanos, TimeUnit.NANOSECONDS);
+        result.setQueryMicros(nanos / 1_000);
+        return result;
+    }
+
+    private static void apply(ColumnStore store, AssessmentChangedEvent event) {
+        if (event.getType() == AssessmentChangedEvent.Type.DELETED) {
+            store.removeAssessment(event.getAssessmentId());
+            return;
+        }
+        store.putAssessment(event.getAssessmentId(), event.getUserId(), event.getStatus());
+        for (ValueChange change : event.getChanges().getResponses()) {
+            ResponseValue value = change.getNewValue() == null ? ResponseValue.BLANK : ResponseValue.fromLabel(change.getNewValue());
+            store.setAnswer(event.getAssessmentId(), change.getItemId(), value);
+        }
+    }
+
+    private static void add(long[] total, long[] counts) {
+        for (int code = 0; code < total.length; code++) {
+            total[code] += counts[code];
+        }
+    }
+
+    private static AnalyticsLiveDto.GroupDto group(Long id, String name, String status, Long assessmentCount, long[] counts) {
+        Map<String, Long> answers = new LinkedHashMap<>();
+        long answered = 0;
+        for (ResponseValue value : ANSWERS) {
+            answers.put(value.getLabel(), counts[value.getCode()]);
+            answered += counts[value.getCode()];
+        }
+        long failed = counts[ResponseValue.NIE.getCode()];
+        long scored = answered - counts[ResponseValue.ND.getCode()];
+        return new AnalyticsLiveDto.GroupDto(id, name, status, assessmentCount, answered, answers,
+                AnalyticsService.percent(failed, scored));
+    }
+
+    private int getAssessmentCount() {
+        return withReadLock(() -> store == null ? 0 : store.getAssessmentCount());
+    }
+
+    private int getSlotCount() {
+        return withReadLock(() -> store == null ? 0 : store.getSlotCount());
+    }
+
+    private <T> T withReadLock(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T withWriteLock(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
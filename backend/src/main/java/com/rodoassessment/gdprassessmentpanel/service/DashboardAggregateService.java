@@ -0,0 +1,170 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.DashboardDto;
+import com.rodoassessment.gdprassessmentpanel.repository.DashboardAggregateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+// Keeps the dashboard aggregates (assessments and answered requirements per status, area score
+// histograms) in step with assessment writes. Deltas are applied in the writing transaction, so the
+// aggregates commit or roll back together with the change, and the dashboard never scans assessments.
+@Service
+public class DashboardAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardAggregateService.class);
+
+    private static final Comparator<DashboardAggregateRepository.AreaScoreCount> AREA_SCORE_ORDER =
+            Comparator.comparing(DashboardAggregateRepository.AreaScoreCount::getAreaId)
+                    .thenComparing(DashboardAggregateRepository.AreaScoreCount::getScore);
+
+    @Autowired
+    private DashboardAggregateRepository dashboardAggregateRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.executeWithoutResult(status -> {
+                if (dashboardAggregateRepository.needsRebuild()) {
+                    logger.info("Building dashboard aggregates from existing assessments");
+                    dashboardAggregateRepository.rebuild();
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Cannot build dashboard aggregates: {}", e.getMessage());
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        dashboardAggregateRepository.rebuild();
+    }
+
+    // Runs synchronously inside the transaction that published the event
+    @EventListener
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        Long userId = event.getUserId();
+        long answeredDelta = answeredDelta(event.getChanges().getResponses());
+        List<DashboardAggregateRepository.AreaScoreCount> scoreDeltas = new ArrayList<>();
+
+        switch (event.getType()) {
+            case CREATED:
+                dashboardAggregateRepository.addStatusCount(userId, event.getStatus(), 1, answeredDelta);
+                scoreDeltas = areaScoreDeltas(event.getChanges().getAreaScores());
+                break;
+            case DELETED:
+                long answered = dashboardAggregateRepository.countAnswered(event.getAssessmentId());
+                dashboardAggregateRepository.addStatusCount(userId, event.getStatus(), -1, -answered);
+                for (DashboardAggregateRepository.AreaScoreCount stored :
+                        dashboardAggregateRepository.findAreaScores(event.getAssessmentId())) {
+                    scoreDeltas.add(new DashboardAggregateRepository.AreaScoreCount(stored.getAreaId(), stored.getScore(), -1));
+                }
+                break;
+            case UPDATED:
+                if (event.isStatusChanged()) {
+                    // The response upserts of this transaction are already visible to the count
+                    long answeredNow = dashboardAggregateRepository.countAnswered(event.getAssessmentId());
+                    moveStatus(userId, event.getPreviousStatus(), event.getStatus(), answeredNow - answeredDelta, answeredNow);
+                } else if (answeredDelta != 0) {
+                    dashboardAggregateRepository.addStatusCount(userId, event.getStatus(), 0, answeredDelta);
+                }
+                scoreDeltas = areaScoreDeltas(event.getChanges().getAreaScores());
+                break;
+        }
+
+        scoreDeltas.sort(AREA_SCORE_ORDER);
+        dashboardAggregateRepository.addAreaScoreCounts(userId, scoreDeltas);
+    }
+
+    // userId == null returns the aggregates over all users
+    @Transactional(readOnly = true)
+    public DashboardDto getDashboard(Long userId) {
+        int requirementCount = catalogService.getSnapshot().getRequirementCount();
+
+        long totalAssessments = 0;
+        long totalAnswered = 0;
+        List<DashboardDto.StatusDto> statuses = new ArrayList<>();
+        for (DashboardAggregateRepository.StatusCount count : dashboardAggregateRepository.findStatusCounts(userId)) {
+            totalAssessments += count.getAssessmentCount();
+            totalAnswered += count.getAnsweredCount();
+            statuses.add(new DashboardDto.StatusDto(count.getStatus(), count.getAssessmentCount(),
+                    percent(count.getAnsweredCount(), count.getAssessmentCount() * requirementCount)));
+        }
+
+        Map<Long, DashboardDto.AreaHistogramDto> histograms = new LinkedHashMap<>();
+        for (CatalogSnapshot.ChapterNode chapter : catalogService.getSnapshot().getChapters()) {
+            for (CatalogSnapshot.AreaNode area : chapter.getAreas()) {
+                histograms.put(area.getId(), new DashboardDto.AreaHistogramDto(
+                        area.getId(), area.getName(), new LinkedHashMap<>(), totalAssessments));
+            }
+        }
+        for (DashboardAggregateRepository.AreaScoreCount count : dashboardAggregateRepository.findAreaScoreCounts(userId)) {
+            DashboardDto.AreaHistogramDto histogram = histograms.get(count.getAreaId());
+            if (histogram != null) {
+                histogram.getScores().put(count.getScore(), count.getCount());
+                histogram.setUnscoredCount(histogram.getUnscoredCount() - count.getCount());
+            }
+        }
+
+        return new DashboardDto(totalAssessments, percent(totalAnswered, totalAssessments * requirementCount),
+                statuses, new ArrayList<>(histograms.values()));
+    }
+
+    // Takes the assessment out of its previous status row and adds it to the new one, in a fixed row order
+    private void moveStatus(Long userId, String previousStatus, String status, long answeredBefore, long answeredAfter) {
+        if (previousStatus.compareTo(status) < 0) {
+            dashboardAggregateRepository.addStatusCount(userId, previousStatus, -1, -answeredBefore);
+            dashboardAggregateRepository.addStatusCount(userId, status, 1, answeredAfter);
+        } else {
+            dashboardAggregateRepository.addStatusCount(userId, status, 1, answeredAfter);
+            dashboardAggregateRepository.addStatusCount(userId, previousStatus, -1, -answeredBefore);
+        }
+    }
+
+    private static long answeredDelta(List<ValueChange> changes) {
+        long delta = 0;
+        for (ValueChange change : changes) {
+            delta += (isSet(change.getNewValue()) ? 1 : 0) - (isSet(change.getOldValue()) ? 1 : 0);
+        }
+        return delta;
+    }
+
+    private static List<DashboardAggregateRepository.AreaScoreCount> areaScoreDeltas(List<ValueChange> changes) {
+        List<DashboardAggregateRepository.AreaScoreCount> deltas = new ArrayList<>();
+        for (ValueChange change : changes) {
+            if (Objects.equals(change.getOldValue(), change.getNewValue())) {
+                continue;
+            }
+            if (isSet(change.getOldValue())) {
+                deltas.add(new DashboardAggregateRepository.AreaScoreCount(change.getItemId(), change.getOldValue(), -1));
+            }
+            if (isSet(change.getNewValue())) {
+                deltas.add(new DashboardAggregateRepository.AreaScoreCount(change.getItemId(), change.getNewValue(), 1));
+            }
+        }
+        return deltas;
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static Integer percent(long part, long whole) {
+        return whole <= 0 ? null : (int) Math.round(100.0 * part / whole);
+    }
+}
@@ -0,0 +1,196 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.repository.ExportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+// Writes assessment rows (one per response and per area score) straight from the database cursor to the
+// response stream. Nothing is collected in memory, so an export of millions of rows needs the same heap
+// as an export of ten; catalog names are filled in from the in-memory catalog instead of SQL joins.
+@Service
+public class ExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] CSV_HEADER = {
+            "assessment_id", "assessment_name", "description", "status", "user_id", "created_at", "updated_at",
+            "record_type", "chapter", "area_id", "area", "requirement_id", "requirement",
+            "value", "comment", "row_updated_at"};
+
+    @Autowired
+    private ExportRepository exportRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size}")
+    private int fetchSize;
+
+    public void export(ExportRepository.Filter filter, Format format, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+
+        rowWriter.start();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        try {
+            template.executeWithoutResult(status -> exportRepository.stream(filter, fetchSize, row -> {
+                try {
+                    rowWriter.write(row, catalog);
+                } catch (IOException e) {
+                    // Typically the client went away; abort the query instead of reading the remaining rows
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void write(ExportRepository.ExportRow row, CatalogSnapshot catalog) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\r\n");
+            // Send the header right away, so the client sees the download start before the first rows arrive
+            writer.flush();
+        }
+
+        @Override
+        public void write(ExportRepository.ExportRow row, CatalogSnapshot catalog) throws IOException {
+            CatalogSnapshot.AreaNode area = catalog.getArea(row.getAreaId());
+            CatalogSnapshot.ChapterNode chapter = area == null ? null : catalog.getChaptersById().get(area.getChapterId());
+            CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(row.getRequirementId());
+
+            field(row.getAssessmentId(), false);
+            field(row.getAssessmentName(), false);
+            field(row.getDescription(), false);
+            field(row.getStatus(), false);
+            field(row.getUserId(), false);
+            field(row.getCreatedAt(), false);
+            field(row.getUpdatedAt(), false);
+            field(row.getKind(), false);
+            field(chapter == null ? null : chapter.getName(), false);
+            field(row.getAreaId(), false);
+            field(area == null ? null : area.getName(), false);
+            field(row.getRequirementId(), false);
+            field(requirement == null ? null : requirement.getText(), false);
+            field(row.getValue(), false);
+            field(row.getComment(), false);
+            field(row.getRowUpdatedAt(), true);
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void field(Object value, boolean last) throws IOException {
+            if (value != null) {
+                String text = value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(text.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(text);
+                }
+            }
+            writer.write(last ? "\r\n" : ",");
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ExportRepository.ExportRow row, CatalogSnapshot catalog) throws IOException {
+            CatalogSnapshot.AreaNode area = catalog.getArea(row.getAreaId());
+            CatalogSnapshot.ChapterNode chapter = area == null ? null : catalog.getChaptersById().get(area.getChapterId());
+            CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(row.getRequirementId());
+
+            generator.writeStartObject();
+            generator.writeNumberField("assessmentId", row.getAssessmentId());
+            generator.writeStringField("assessmentName", row.getAssessmentName());
+            generator.writeStringField("description", row.getDescription());
+            generator.writeStringField("status", row.getStatus());
+            generator.writeNumberField("userId", row.getUserId());
+            writeDate("createdAt", row.getCreatedAt());
+            writeDate("updatedAt", row.getUpdatedAt());
+            generator.writeStringField("recordType", row.getKind());
+            if (row.getAreaId() != null) {
+                generator.writeStringField("chapter", chapter == null ? null : chapter.getName());
+                generator.writeNumberField("areaId", row.getAreaId());
+                generator.writeStringField("area", area == null ? null : area.getName());
+            }
+            if (row.getRequirementId() != null) {
+                generator.writeNumberField("requirementId", row.getRequirementId());
+                generator.writeStringField("requirement", requirement == null ? null : requirement.getText());
+            }
+            generator.writeStringField("value", row.getValue());
+            generator.writeStringField("comment", row.getComment());
+            writeDate("rowUpdatedAt", row.getRowUpdatedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+
+        private void writeDate(String name, LocalDateTime value) throws IOException {
+            generator.writeStringField(name, value == null ? null : value.toString());
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodoassessment.gdprassessmentpanel.dto.ImportReportDto;
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import com.rodoassessment.gdprassessmentpanel.repository.ImportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+// Imports assessments from the rows the export writes (one per response and per area score, grouped into
+// assessments by assessment_id). Rows are validated against the in-memory catalog while the file is read
+// and valid answers are streamed straight into a COPY, so only one row of the file is held at a time.
+// Invalid rows are skipped and listed in the report; the rest is inserted in one transaction.
+@Service
+public class ImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] REQUIRED_COLUMNS = {"assessment_id", "assessment_name"};
+
+    @Autowired
+    private ImportRepository importRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.max-errors}")
+    private int maxErrors;
+
+    // The imported assessments belong to userId. Malformed files (no header, broken quoting) are rejected
+    // with IllegalArgumentException before anything is written.
+    public ImportReportDto importAssessments(Long userId, Format format, boolean gzip, InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(gzip ? new GZIPInputStream(in, BUFFER_SIZE) : in, StandardCharsets.UTF_8);
+        RowReader rows = format == Format.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+        Batch batch = new Batch(catalogService.getSnapshot());
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        try {
+            template.executeWithoutResult(status -> {
+                importRepository.createStagingTables();
+                importRepository.copyAnswers(sink -> {
+                    Row row;
+                    while ((row = rows.next()) != null) {
+                        batch.accept(row, sink);
+                    }
+                });
+                if (batch.assessments.isEmpty()) {
+                    return;
+                }
+                importRepository.copyAssessments(batch.staged());
+                batch.report.setAssessmentIds(importRepository.merge(userId, LocalDateTime.now()));
+                publish(userId, batch);
+            });
+        } catch (InvalidDataAccessApiUsageException e) {
+            // JdbcTemplate wraps whatever the COPY callback throws: a malformed file or a broken upload
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw e;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        ImportReportDto report = batch.report;
+        report.setAssessmentsImported(report.getAssessmentIds().size());
+        logger.info("Imported {} assessment(s) with {} response(s) and {} area score(s) for user {}, {} of {} row(s) rejected",
+                report.getAssessmentsImported(), report.getResponsesImported(), report.getAreaScoresImported(), userId,
+                report.getRowsRejected(), report.getRowsRead());
+        return report;
+    }
+
+    // The same event as a create through the API, so the dashboard, versions, history and caches follow
+    private void publish(Long userId, Batch batch) {
+        Map<String, Long> ids = batch.report.getAssessmentIds();
+        Set<String> published = new HashSet<>();
+        List<ValueChange> responses = new ArrayList<>();
+        List<ValueChange> areaScores = new ArrayList<>();
+        String[] current = new String[1];
+
+        importRepository.readAnswers((sourceKey, kind, itemId, code, comment) -> {
+            if (current[0] != null && !current[0].equals(sourceKey)) {
+                publish(userId, batch.assessments.get(current[0]), ids.get(current[0]), responses, areaScores);
+                published.add(current[0]);
+            }
+            current[0] = sourceKey;
+            if (kind.equals(ImportRepository.RESPONSE)) {
+                responses.add(new ValueChange(itemId, null, ResponseValue.fromCode(code).getLabel(), null, comment));
+            } else {
+                areaScores.add(new ValueChange(itemId, null, AreaScoreValue.fromCode(code).getLabel(), null, comment));
+            }
+        });
+        if (current[0] != null) {
+            publish(userId, batch.assessments.get(current[0]), ids.get(current[0]), responses, areaScores);
+            published.add(current[0]);
+        }
+
+        // Assessments imported without any answers
+        for (Map.Entry<String, Long> entry : ids.entrySet()) {
+            if (!published.contains(entry.getKey())) {
+                publish(userId, batch.assessments.get(entry.getKey()), entry.getValue(), responses, areaScores);
+            }
+        }
+    }
+
+    private void publish(Long userId, Header header, Long assessmentId, List<ValueChange> responses, List<ValueChange> areaScores) {
+        eventPublisher.publishEvent(new AssessmentChangedEvent(AssessmentChangedEvent.Type.CREATED, assessmentId, userId,
+                null, header.status, new AssessmentChanges(assessmentId, new ArrayList<>(responses), new ArrayList<>(areaScores))));
+        responses.clear();
+        areaScores.clear();
+    }
+
+    // Validation state of one import: the assessments seen so far and the report
+    private final class Batch {
+        private final CatalogSnapshot catalog;
+        private final Map<String, Header> assessments = new LinkedHashMap<>();
+        private final ImportReportDto report = new ImportReportDto();
+
+        Batch(CatalogSnapshot catalog) {
+            this.catalog = catalog;
+        }
+
+        void accept(Row row, ImportRepository.AnswerSink sink) throws IOException {
+            report.setRowsRead(report.getRowsRead() + 1);
+            String error = row.error != null ? row.error : stage(row, sink);
+            if (error != null) {
+                report.setRowsRejected(report.getRowsRejected() + 1);
+                if (report.getErrors().size() < maxErrors) {
+                    report.getErrors().add(new ImportReportDto.RowErrorDto(row.line, error));
+                } else {
+                    report.setErrorsTruncated(true);
+                }
+            }
+        }
+
+        // Stages the row and returns null, or returns why it was rejected
+        private String stage(Row row, ImportRepository.AnswerSink sink) throws IOException {
+            String key = row.get("assessment_id");
+            if (key == null) {
+                return "Error: Missing assessment_id.";
+            }
+            String name = row.get("assessment_name");
+            Header header = assessments.get(key);
+            Header created = null;
+            if (header == null) {
+                if (name == null) {
+                    return "Error: Missing assessment_name.";
+                }
+                if (name.length() > 200) {
+                    return "Error: assessment_name is longer than 200 characters.";
+                }
+                String status = row.get("status");
+                if (status != null && status.length() > 50) {
+                    return "Error: status is longer than 50 characters.";
+                }
+                LocalDateTime createdAt = null;
+                String createdAtText = row.get("created_at");
+                if (createdAtText != null) {
+                    try {
+                        createdAt = LocalDateTime.parse(createdAtText);
+                    } catch (DateTimeParseException e) {
+                        return "Error: Invalid created_at '" + createdAtText + "'.";
+                    }
+                }
+                header = created = new Header(row.line, name, row.get("description"), status == null ? "DRAFT" : status, createdAt);
+            } else if (name != null && !name.equals(header.name)) {
+                return "Error: Assessment " + key + " is named '" + header.name + "' on line " + header.line + ".";
+            }
+
+            String recordType = row.get("record_type");
+            String error = null;
+            if (recordType == null) {
+                // A row that only carries the assessment, e.g. one without any answers
+            } else if (recordType.equals("RESPONSE")) {
+                error = stageAnswer(row, sink, key, header, ImportRepository.RESPONSE, "requirement_id");
+            } else if (recordType.equals("AREA_SCORE")) {
+                error = stageAnswer(row, sink, key, header, ImportRepository.AREA_SCORE, "area_id");
+            } else {
+                error = "Error: Unknown record_type '" + recordType + "'.";
+            }
+            if (error == null && created != null) {
+                assessments.put(key, created);
+            }
+            return error;
+        }
+
+        private String stageAnswer(Row row, ImportRepository.AnswerSink sink, String key, Header header,
+                                   String kind, String idColumn) throws IOException {
+            boolean response = kind.equals(ImportRepository.RESPONSE);
+            Long itemId;
+            try {
+                String id = row.get(idColumn);
+                if (id == null) {
+                    return "Error: Missing " + idColumn + ".";
+                }
+                itemId = Long.valueOf(id);
+            } catch (NumberFormatException e) {
+                return "Error: Invalid " + idColumn + " '" + row.get(idColumn) + "'.";
+            }
+            if (response ? catalog.getRequirement(itemId) == null : catalog.getArea(itemId) == null) {
+                return "Error: " + (response ? "Requirement " : "Area ") + itemId + " does not exist.";
+            }
+
+            String value = row.get("value");
+            // Blank answers are not stored for a new assessment, as on create
+            if (value == null) {
+                return null;
+            }
+            short code;
+            try {
+                code = response ? ResponseValue.fromLabel(value).getCode() : AreaScoreValue.fromLabel(value).getCode();
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+            Map<Long, Long> seen = response ? header.responseLines : header.areaScoreLines;
+            Long firstLine = seen.putIfAbsent(itemId, row.line);
+            if (firstLine != null) {
+                return "Error: " + (response ? "Requirement " : "Area ") + itemId + " of assessment " + key
+                        + " is already on line " + firstLine + ".";
+            }
+
+            sink.add(key, row.line, kind, itemId, code, row.get("comment"));
+            if (response) {
+                report.setResponsesImported(report.getResponsesImported() + 1);
+            } else {
+                report.setAreaScoresImported(report.getAreaScoresImported() + 1);
+            }
+            return null;
+        }
+
+        List<ImportRepository.StagedAssessment> staged() {
+            List<ImportRepository.StagedAssessment> staged = new ArrayList<>(assessments.size());
+            for (Map.Entry<String, Header> entry : assessments.entrySet()) {
+                Header header = entry.getValue();
+                staged.add(new ImportRepository.StagedAssessment(entry.getKey(), header.line, header.name,
+                        header.description, header.status, header.createdAt));
+            }
+            return staged;
+        }
+    }
+
+    private static final class Header {
+        private final long line;
+        private final String name;
+        private final String description;
+        private final String status;
+        private final LocalDateTime createdAt;
+        // Item id -> line it was imported from, to report duplicates
+        private final Map<Long, Long> responseLines = new HashMap<>();
+        private final Map<Long, Long> areaScoreLines = new HashMap<>();
+
+        Header(long line, String name, String description, String status, LocalDateTime createdAt) {
+            this.line = line;
+            this.name = name;
+            this.description = description;
+            this.status = status;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // One row of the file; fields are looked up by their CSV column name, empty fields read as null
+    private static final class Row {
+        private final long line;
+        private final Map<String, String> fields;
+        // Set when the row could not be read at all
+        private final String error;
+
+        Row(long line, Map<String, String> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+
+        String get(String column) {
+            String value = fields.get(column);
+            if (value == null) {
+                return null;
+            }
+            value = value.trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    private interface RowReader {
+        // Next row, or null at the end of the file
+        Row next() throws IOException;
+    }
+
+    // RFC 4180 CSV with a header row, as written by the export; quoted fields may contain line breaks
+    private static final class CsvRowReader implements RowReader {
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int length;
+        private int pushedBack = -2;
+        private long line = 1;
+        private final List<String> columns = new ArrayList<>();
+
+        CsvRowReader(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("Error: The file is empty.");
+            }
+            for (String column : header) {
+                columns.add(column.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+            }
+            for (String column : REQUIRED_COLUMNS) {
+                if (!columns.contains(column)) {
+                    throw new IllegalArgumentException("Error: Missing column " + column + ".");
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                long start = line;
+                List<String> record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue;
+                }
+                if (record.size() > columns.size()) {
+                    return new Row(start, Collections.emptyMap(),
+                            "Error: Expected " + columns.size() + " fields, found " + record.size() + ".");
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < record.size(); i++) {
+                    fields.put(columns.get(i), record.get(i));
+                }
+                return new Row(start, fields, null);
+            }
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            long start = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Error: Unterminated quoted field starting on line " + start + ".");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pushedBack = next;
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            if (position == length) {
+                length = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (length <= 0) {
+                    length = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+
+    // One JSON object per line, as written by the export; camelCase names map to the CSV columns
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowReader(Reader reader) {
+            this.reader = new BufferedReader(reader, BUFFER_SIZE);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (!text.isBlank()) {
+                    return parse(text);
+                }
+            }
+            return null;
+        }
+
+        private Row parse(String text) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return new Row(line, Collections.emptyMap(), "Error: Invalid JSON.");
+            }
+            if (!node.isObject()) {
+                return new Row(line, Collections.emptyMap(), "Error: Expected a JSON object.");
+            }
+            Map<String, String> fields = new HashMap<>();
+            node.fields().forEachRemaining(entry -> {
+                if (!entry.getValue().isNull()) {
+                    fields.put(column(entry.getKey()), entry.getValue().asText());
+                }
+            });
+            return new Row(line, fields, null);
+        }
+
+        private String column(String name) {
+            StringBuilder column = new StringBuilder(name.length() + 4);
+            for (char c : name.toCharArray()) {
+                if (Character.isUpperCase(c)) {
+                    column.append('_').append(Character.toLowerCase(c));
+                } else {
+                    column.append(c);
+                }
+            }
+            return column.toString();
+        }
+    }
+}
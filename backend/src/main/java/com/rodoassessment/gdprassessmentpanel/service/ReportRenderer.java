@@ -0,0 +1,157 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentScoresDto;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+// Lays out the assessment report. The standard Helvetica font with the CP1250 encoding covers the
+// Polish alphabet, so no font files have to be embedded and reports stay small.
+@Component
+public class ReportRenderer {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Color HEADER_BACKGROUND = new Color(41, 128, 185);
+
+    private final Font titleFont;
+    private final Font headingFont;
+    private final Font subheadingFont;
+    private final Font textFont;
+    private final Font headerFont;
+
+    public ReportRenderer() throws IOException {
+        BaseFont regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
+        BaseFont bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
+        titleFont = new Font(bold, 18);
+        headingFont = new Font(bold, 14);
+        subheadingFont = new Font(bold, 11);
+        textFont = new Font(regular, 9);
+        headerFont = new Font(bold, 9, Font.NORMAL, Color.WHITE);
+    }
+
+    public byte[] render(AssessmentDto assessment, AssessmentScoresDto scores) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter.getInstance(document, out);
+        document.addTitle("Raport oceny RODO - " + assessment.getName());
+        document.open();
+
+        document.add(new Paragraph("Raport oceny RODO", titleFont));
+        document.add(new Paragraph(assessment.getName(), headingFont));
+        if (assessment.getDescription() != null && !assessment.getDescription().isEmpty()) {
+            document.add(new Paragraph(assessment.getDescription(), textFont));
+        }
+        document.add(new Paragraph("Status: " + text(assessment.getStatus()), textFont));
+        document.add(new Paragraph("Utworzono: " + date(assessment.getCreatedAt())
+                + "    Ostatnia zmiana: " + date(assessment.getUpdatedAt())
+                + "    Wygenerowano: " + date(LocalDateTime.now()), textFont));
+
+        Paragraph overall = new Paragraph("Wynik ogólny: " + percent(scores.getScore())
+                + "    Poziom ryzyka: " + text(scores.getRiskLevel()), subheadingFont);
+        overall.setSpacingBefore(8);
+        overall.setSpacingAfter(8);
+        document.add(overall);
+
+        document.add(summaryTable(scores));
+
+        Map<Long, AssessmentScoresDto.AreaScoreDto> areaScores = new HashMap<>();
+        for (AssessmentScoresDto.ChapterScoreDto chapter : scores.getChapters()) {
+            for (AssessmentScoresDto.AreaScoreDto area : chapter.getAreas()) {
+                areaScores.put(area.getId(), area);
+            }
+        }
+
+        for (AssessmentDto.ChapterDto chapter : assessment.getChapters()) {
+            Paragraph chapterTitle = new Paragraph(chapter.getOrderNumber() + ". " + chapter.getName(), headingFont);
+            chapterTitle.setSpacingBefore(14);
+            document.add(chapterTitle);
+
+            for (AssessmentDto.AreaDto area : chapter.getAreas()) {
+                AssessmentScoresDto.AreaScoreDto areaScore = areaScores.get(area.getId());
+                Paragraph areaTitle = new Paragraph(chapter.getOrderNumber() + "." + area.getOrderNumber() + " " + area.getName()
+                        + "  (" + percent(areaScore == null ? null : areaScore.getScore()) + ")", subheadingFont);
+                areaTitle.setSpacingBefore(8);
+                areaTitle.setSpacingAfter(4);
+                document.add(areaTitle);
+                if (area.getScore() != null && !area.getScore().isEmpty()) {
+                    document.add(new Paragraph("Ocena obszaru: " + area.getScore()
+                            + (area.getComment() == null || area.getComment().isEmpty() ? "" : " - " + area.getComment()), textFont));
+                }
+                document.add(requirementTable(area));
+            }
+        }
+
+        document.close();
+        return out.toByteArray();
+    }
+
+    private PdfPTable summaryTable(AssessmentScoresDto scores) {
+        PdfPTable table = table(new float[] {3, 4, 1, 1, 1.3f, 2});
+        header(table, "Rozdział", "Obszar", "Waga", "Wynik", "Ryzyko", "Ocena obszaru");
+        for (AssessmentScoresDto.ChapterScoreDto chapter : scores.getChapters()) {
+            for (AssessmentScoresDto.AreaScoreDto area : chapter.getAreas()) {
+                cells(table, chapter.getName(), area.getName(), String.valueOf(area.getWeight()),
+                        percent(area.getScore()), text(area.getRiskLevel()), text(area.getAreaScore()));
+            }
+        }
+        return table;
+    }
+
+    private PdfPTable requirementTable(AssessmentDto.AreaDto area) {
+        PdfPTable table = table(new float[] {0.5f, 6, 1.4f, 3});
+        header(table, "Lp.", "Wymaganie", "Odpowiedź", "Komentarz");
+        for (AssessmentDto.RequirementDto requirement : area.getRequirements()) {
+            cells(table, String.valueOf(requirement.getOrderNumber()), requirement.getText(),
+                    text(requirement.getValue()), text(requirement.getComment()));
+        }
+        return table;
+    }
+
+    private static PdfPTable table(float[] widths) {
+        PdfPTable table = new PdfPTable(widths);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        return table;
+    }
+
+    private void header(PdfPTable table, String... titles) {
+        for (String title : titles) {
+            PdfPCell cell = new PdfPCell(new Phrase(title, headerFont));
+            cell.setBackgroundColor(HEADER_BACKGROUND);
+            cell.setPadding(4);
+            table.addCell(cell);
+        }
+    }
+
+    private void cells(PdfPTable table, String... values) {
+        for (String value : values) {
+            PdfPCell cell = new PdfPCell(new Phrase(value, textFont));
+            cell.setPadding(3);
+            table.addCell(cell);
+        }
+    }
+
+    private static String text(String value) {
+        return value == null || value.isEmpty() ? "-" : value;
+    }
+
+    private static String percent(Integer value) {
+        return value == null ? "-" : value + "%";
+    }
+
+    private static String date(LocalDateTime value) {
+        return value == null ? "-" : value.format(DATE_FORMAT);
+    }
+}
@@ -0,0 +1,192 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.config.ReadWriteRoutingDataSource;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentDto;
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentScoresDto;
+import com.rodoassessment.gdprassessmentpanel.model.Assessment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.ZoneOffset;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// PDF reports rendered on a small bounded pool and cached on local disk. The file name is the report key
+// (assessment id, last change, catalog fingerprint), so an unchanged assessment is served straight from
+// disk, and concurrent requests for a report that is being rendered wait for the same render.
+@Service
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    @Autowired
+    private AssessmentReadService assessmentReadService;
+
+    @Autowired
+    private ScoringService scoringService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AutosaveBuffer autosaveBuffer;
+
+    @Autowired
+    private ReportRenderer reportRenderer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.reports.cache-dir}")
+    private String cacheDirectory;
+
+    @Value("${app.reports.threads}")
+    private int threads;
+
+    @Value("${app.reports.queue-capacity}")
+    private int queueCapacity;
+
+    private final ConcurrentHashMap<String, CompletableFuture<RenderedReport>> rendering = new ConcurrentHashMap<>();
+
+    private Path cacheDir;
+    private ThreadPoolExecutor executor;
+    private Counter cacheHits;
+    private Counter coalesced;
+    private Counter rejected;
+    private Timer renderTimer;
+
+    @PostConstruct
+    public void start() throws IOException {
+        cacheDir = Files.createDirectories(Paths.get(cacheDirectory));
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "report-render-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("reports.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        cacheHits = Counter.builder("reports.cache.hits").register(meterRegistry);
+        coalesced = Counter.builder("reports.coalesced")
+                .description("Report requests that joined a render already in progress")
+                .register(meterRegistry);
+        rejected = Counter.builder("reports.rejected").register(meterRegistry);
+        renderTimer = Timer.builder("reports.render").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public String reportKey(Assessment assessment) {
+        long updatedAt = assessment.getUpdatedAt() == null ? 0
+                : assessment.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return assessment.getId() + "-" + updatedAt + "-" + catalogService.getSnapshot().getFingerprint().substring(0, 16);
+    }
+
+    // Throws RejectedExecutionException right away when the render queue is full
+    public CompletableFuture<RenderedReport> getReport(Assessment assessment) {
+        String key = reportKey(assessment);
+        // Edits still in the autosave buffer are not reflected in updatedAt yet, so such a report is not cached
+        boolean cacheable = !autosaveBuffer.hasPendingEdits(assessment.getId());
+        Path file = cacheDir.resolve(key + ".pdf");
+
+        if (cacheable && Files.isRegularFile(file)) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(new RenderedReport(key, new FileSystemResource(file)));
+        }
+
+        CompletableFuture<RenderedReport> future = new CompletableFuture<>();
+        CompletableFuture<RenderedReport> existing = rendering.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    // The report is cached under a key taken from the primary, so it must not be built from a lagging replica
+                    future.complete(renderTimer.record(() -> ReadWriteRoutingDataSource.readFromPrimary(
+                            () -> render(assessment, key, file, cacheable))));
+                } catch (Throwable e) {
+                    logger.error("Cannot render report {}: {}", key, e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    rendering.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rendering.remove(key, future);
+            rejected.increment();
+            throw e;
+        }
+        return future;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        if (event.getType() == AssessmentChangedEvent.Type.DELETED) {
+            removeReports(event.getAssessmentId(), null);
+        }
+    }
+
+    private RenderedReport render(Assessment assessment, String key, Path file, boolean cacheable) {
+        AssessmentDto dto = assessmentReadService.read(assessment);
+        AssessmentScoresDto scores = scoringService.getScores(assessment.getId());
+        byte[] pdf = reportRenderer.render(dto, scores);
+
+        if (!cacheable) {
+            return new RenderedReport(key, new ByteArrayResource(pdf));
+        }
+
+        try {
+            // Write under a temporary name first, so readers never see a partially written report
+            Path temp = Files.createTempFile(cacheDir, key, ".tmp");
+            Files.write(temp, pdf);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        removeReports(assessment.getId(), file);
+        return new RenderedReport(key, new FileSystemResource(file));
+    }
+
+    // Deletes cached reports of the assessment other than the given one
+    private void removeReports(Long assessmentId, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, assessmentId + "-*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot remove old reports of assessment {}: {}", assessmentId, e.getMessage());
+        }
+    }
+
+    @lombok.Value
+    public static class RenderedReport {
+        String key;
+        Resource resource;
+    }
+}
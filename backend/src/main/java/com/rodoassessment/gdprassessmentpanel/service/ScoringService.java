@@ -0,0 +1,341 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.rodoassessment.gdprassessmentpanel.dto.AssessmentScoresDto;
+import com.rodoassessment.gdprassessmentpanel.config.ReadWriteRoutingDataSource;
+import com.rodoassessment.gdprassessmentpanel.model.AreaScoreValue;
+import com.rodoassessment.gdprassessmentpanel.model.ResponseValue;
+import com.rodoassessment.gdprassessmentpanel.repository.AreaScoreRepository;
+import com.rodoassessment.gdprassessmentpanel.repository.ResponseRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+// Weighted compliance scores per area, chapter and assessment. The running totals of recently used
+// assessments stay in memory and are adjusted by the committed changes of every write, so saving one
+// answer costs O(1) instead of a rescan of the whole assessment.
+@Service
+public class ScoringService {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    @Autowired
+    private AreaScoreRepository areaScoreRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.scoring.cache-size}")
+    private int cacheSize;
+
+    // LRU of score states; guarded by synchronizing on the map itself
+    private Map<Long, ScoreState> states;
+
+    // Counts changes per stripe of assessment ids, so a state loaded concurrently with a commit is not cached stale
+    private final long[] changeCounters = new long[STRIPES];
+
+    @PostConstruct
+    public void init() {
+        states = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ScoreState> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public AssessmentScoresDto getScores(Long assessmentId) {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        ScoreState state;
+        long counter;
+        synchronized (states) {
+            state = states.get(assessmentId);
+            counter = changeCounters[stripe(assessmentId)];
+        }
+
+        if (state == null || state.catalogVersion != catalog.getVersion()) {
+            state = load(assessmentId, catalog);
+            synchronized (states) {
+                if (changeCounters[stripe(assessmentId)] == counter) {
+                    states.put(assessmentId, state);
+                }
+            }
+        }
+
+        synchronized (state) {
+            return state.toDto(assessmentId, catalog);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentChanged(AssessmentChangedEvent event) {
+        Long assessmentId = event.getAssessmentId();
+        ScoreState state;
+        synchronized (states) {
+            changeCounters[stripe(assessmentId)]++;
+            if (event.getType() == AssessmentChangedEvent.Type.DELETED) {
+                states.remove(assessmentId);
+                return;
+            }
+            state = states.get(assessmentId);
+        }
+        if (state == null) {
+            // Not cached; the next read loads the committed state from the database
+            return;
+        }
+
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        boolean consistent;
+        synchronized (state) {
+            consistent = state.catalogVersion == catalog.getVersion();
+            for (ValueChange change : event.getChanges().getResponses()) {
+                consistent = consistent && state.applyResponse(catalog, change);
+            }
+            for (ValueChange change : event.getChanges().getAreaScores()) {
+                consistent = consistent && state.applyAreaScore(catalog, change);
+            }
+        }
+        if (!consistent) {
+            // Changes arrived out of order or the catalog changed; drop the state and reload it on the next read
+            synchronized (states) {
+                states.remove(assessmentId, state);
+            }
+        }
+    }
+
+    private ScoreState load(Long assessmentId, CatalogSnapshot catalog) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        // Cached until the next change, so it is read from the primary rather than a possibly lagging replica
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> template.execute(status -> {
+            ScoreState state = new ScoreState(catalog);
+            List<Long> ids = List.of(assessmentId);
+            for (ResponseRepository.ValueView response : responseRepository.findValuesByAssessmentIds(ids)) {
+                CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(response.getRequirementId());
+                if (requirement != null) {
+                    state.setResponse(requirement, response.getValue());
+                }
+            }
+            for (AreaScoreRepository.ScoreView areaScore : areaScoreRepository.findScoresByAssessmentIds(ids)) {
+                CatalogSnapshot.AreaNode area = catalog.getArea(areaScore.getAreaId());
+                if (area != null) {
+                    state.setAreaScore(area, areaScore.getScore());
+                }
+            }
+            return state;
+        }));
+    }
+
+    private static int stripe(Long assessmentId) {
+        return (int) Math.floorMod(assessmentId, (long) STRIPES);
+    }
+
+    private static Integer round(Double score) {
+        return score == null ? null : (int) Math.round(score);
+    }
+
+    private static String riskLevel(Double score) {
+        if (score == null) {
+            return null;
+        }
+        if (score >= 80) {
+            return "NISKI";
+        }
+        return score >= 60 ? "ŚREDNI" : "WYSOKI";
+    }
+
+    private static final class ScoreState {
+        final long catalogVersion;
+        final Map<Long, ResponseValue> responses = new HashMap<>();
+        final Map<Long, AreaScoreValue> areaScores = new HashMap<>();
+        final Map<Long, AreaTotals> areas = new HashMap<>();
+        final Map<Long, WeightedTotals> chapters = new HashMap<>();
+        final WeightedTotals overall = new WeightedTotals();
+
+        ScoreState(CatalogSnapshot catalog) {
+            catalogVersion = catalog.getVersion();
+            for (CatalogSnapshot.ChapterNode chapter : catalog.getChapters()) {
+                chapters.put(chapter.getId(), new WeightedTotals());
+                for (CatalogSnapshot.AreaNode area : chapter.getAreas()) {
+                    areas.put(area.getId(), new AreaTotals(chapter.getId(), area.getWeight()));
+                }
+            }
+        }
+
+        // Returns false when the change does not follow from the state, i.e. the state is stale
+        boolean applyResponse(CatalogSnapshot catalog, ValueChange change) {
+            CatalogSnapshot.RequirementNode requirement = catalog.getRequirement(change.getItemId());
+            if (requirement == null) {
+                return false;
+            }
+            ResponseValue current = responses.get(requirement.getId());
+            ResponseValue newValue = ResponseValue.fromLabel(change.getNewValue());
+            if (current == newValue) {
+                return true;
+            }
+            if (current != (change.getOldValue() == null ? null : ResponseValue.fromLabel(change.getOldValue()))) {
+                return false;
+            }
+            setResponse(requirement, newValue);
+            return true;
+        }
+
+        boolean applyAreaScore(CatalogSnapshot catalog, ValueChange change) {
+            CatalogSnapshot.AreaNode area = catalog.getArea(change.getItemId());
+            if (area == null) {
+                return false;
+            }
+            AreaScoreValue current = areaScores.get(area.getId());
+            AreaScoreValue newScore = AreaScoreValue.fromLabel(change.getNewValue());
+            if (current == newScore) {
+                return true;
+            }
+            if (current != (change.getOldValue() == null ? null : AreaScoreValue.fromLabel(change.getOldValue()))) {
+                return false;
+            }
+            setAreaScore(area, newScore);
+            return true;
+        }
+
+        void setResponse(CatalogSnapshot.RequirementNode requirement, ResponseValue value) {
+            AreaTotals area = areas.get(requirement.getAreaId());
+            area.remove(responses.put(requirement.getId(), value));
+            area.add(value);
+            refresh(area);
+        }
+
+        void setAreaScore(CatalogSnapshot.AreaNode area, AreaScoreValue score) {
+            AreaTotals totals = areas.get(area.getId());
+            areaScores.put(area.getId(), score);
+            totals.areaScore = score;
+            refresh(totals);
+        }
+
+        // Moves the area's contribution in its chapter and in the overall totals to its current score
+        private void refresh(AreaTotals area) {
+            Double score = area.score();
+            if (Objects.equals(score, area.contribution)) {
+                return;
+            }
+            WeightedTotals chapter = chapters.get(area.chapterId);
+            if (area.contribution != null) {
+                chapter.remove(area.contribution, area.weight);
+                overall.remove(area.contribution, area.weight);
+            }
+            if (score != null) {
+                chapter.add(score, area.weight);
+                overall.add(score, area.weight);
+            }
+            area.contribution = score;
+        }
+
+        AssessmentScoresDto toDto(Long assessmentId, CatalogSnapshot catalog) {
+            List<AssessmentScoresDto.ChapterScoreDto> chapterDtos = new ArrayList<>();
+            for (CatalogSnapshot.ChapterNode chapter : catalog.getChapters()) {
+                List<AssessmentScoresDto.AreaScoreDto> areaDtos = new ArrayList<>();
+                for (CatalogSnapshot.AreaNode area : chapter.getAreas()) {
+                    AreaTotals totals = areas.get(area.getId());
+                    areaDtos.add(new AssessmentScoresDto.AreaScoreDto(area.getId(), area.getName(), area.getWeight(),
+                            round(totals.contribution), riskLevel(totals.contribution), round(totals.complianceScore()),
+                            totals.areaScore == null ? null : totals.areaScore.getLabel(), totals.answeredCount, totals.notApplicableCount));
+                }
+                Double chapterScore = chapters.get(chapter.getId()).score();
+                chapterDtos.add(new AssessmentScoresDto.ChapterScoreDto(chapter.getId(), chapter.getName(),
+                        round(chapterScore), riskLevel(chapterScore), areaDtos));
+            }
+            Double score = overall.score();
+            return new AssessmentScoresDto(assessmentId, round(score), riskLevel(score), chapterDtos);
+        }
+    }
+
+    private static final class AreaTotals {
+        final Long chapterId;
+        final double weight;
+        long pointSum;
+        int scoredCount;
+        int answeredCount;
+        int notApplicableCount;
+        AreaScoreValue areaScore;
+        Double contribution;
+
+        AreaTotals(Long chapterId, double weight) {
+            this.chapterId = chapterId;
+            this.weight = weight;
+        }
+
+        void add(ResponseValue value) {
+            count(value, 1);
+        }
+
+        void remove(ResponseValue value) {
+            count(value, -1);
+        }
+
+        // ND and blank answers do not count towards the compliance score
+        private void count(ResponseValue value, int sign) {
+            if (value == null || !value.isAnswered()) {
+                return;
+            }
+            answeredCount += sign;
+            if (value == ResponseValue.ND) {
+                notApplicableCount += sign;
+            }
+            Integer points = value.getPoints();
+            if (points != null) {
+                pointSum += sign * points;
+                scoredCount += sign;
+            }
+        }
+
+        Double complianceScore() {
+            return scoredCount == 0 ? null : (double) pointSum / scoredCount;
+        }
+
+        // The auditor's area score takes precedence over the answers; NIE DOTYCZY excludes the area
+        Double score() {
+            if (areaScore == AreaScoreValue.NIE_DOTYCZY) {
+                return null;
+            }
+            Integer points = areaScore == null ? null : areaScore.getPoints();
+            return points != null ? Double.valueOf(points) : complianceScore();
+        }
+    }
+
+    private static final class WeightedTotals {
+        double weightedSum;
+        double weightSum;
+        int count;
+
+        void add(double score, double weight) {
+            weightedSum += score * weight;
+            weightSum += weight;
+            count++;
+        }
+
+        void remove(double score, double weight) {
+            if (--count == 0) {
+                // Avoid accumulating rounding error once nothing contributes
+                weightedSum = 0;
+                weightSum = 0;
+                return;
+            }
+            weightedSum -= score * weight;
+            weightSum -= weight;
+        }
+
+        Double score() {
+            return count == 0 || weightSum <= 0 ? null : weightedSum / weightSum;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+// Renders the assessment template once per catalog version, as plain and gzip-compressed JSON
+@Service
+public class TemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateCache.class);
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private AssessmentReadService assessmentReadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile RenderedTemplate rendered;
+
+    public RenderedTemplate get() {
+        CatalogSnapshot catalog = catalogService.getSnapshot();
+        RenderedTemplate current = rendered;
+        if (current == null || current.getCatalogVersion() != catalog.getVersion()) {
+            synchronized (this) {
+                current = rendered;
+                if (current == null || current.getCatalogVersion() != catalog.getVersion()) {
+                    current = render(catalog);
+                    rendered = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private RenderedTemplate render(CatalogSnapshot catalog) {
+        byte[] plain;
+        try {
+            plain = objectMapper.writeValueAsBytes(assessmentReadService.readTemplate());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize assessment template", e);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(plain.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String hash = HexFormat.of().formatHex(sha256(plain), 0, 16);
+        RenderedTemplate template = new RenderedTemplate(catalog.getVersion(), plain, buffer.toByteArray(),
+                "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+
+        logger.info("Rendered assessment template for catalog version {} ({} bytes, {} bytes gzip)",
+                catalog.getVersion(), plain.length, template.getGzip().length);
+        return template;
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Value
+    public static class RenderedTemplate {
+        long catalogVersion;
+        byte[] plain;
+        byte[] gzip;
+        String etag;
+        String gzipEtag;
+
+        // If-None-Match uses weak comparison, so a W/ prefix added by a proxy still matches
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import lombok.Value;
+
+import java.util.Objects;
+
+// One changed response (itemId = requirement id) or area score (itemId = area id);
+// old values are null when the row did not exist before
+@Value
+public class ValueChange {
+    Long itemId;
+    String oldValue;
+    String newValue;
+    String oldComment;
+    String newComment;
+
+    public boolean isCreated() {
+        return oldValue == null;
+    }
+
+    public static boolean differs(String oldValue, String oldComment, String newValue, String newComment) {
+        return !Objects.equals(oldValue, newValue) || !Objects.equals(oldComment, newComment);
+    }
+}
@@ -0,0 +1,10 @@
+package com.rodoassessment.gdprassessmentpanel.service;
+
+import lombok.Value;
+
+// Desired value and comment of a single response or area score
+@Value
+public class ValueEdit {
+    String value;
+    String comment;
+}
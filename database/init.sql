@@ -3,7 +3,8 @@
 -- Create roles table
 CREATE TABLE roles (
     id SERIAL PRIMARY KEY,
-    name VARCHAR(50) NOT NULL UNIQUE
+    name VARCHAR(50) NOT NULL UNIQUE,
+    description VARCHAR(255)
 );
 
 -- Create users table
@@ -16,6 +17,7 @@ CREATE TABLE users (
     last_name VARCHAR(100),
     organization VARCHAR(200),
     position VARCHAR(100),
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -41,6 +43,9 @@ CREATE TABLE assessments (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Keyset pagination of a user's assessments by (created_at, id)
+CREATE INDEX idx_assessments_user_created ON assessments (user_id, created_at, id);
+
 -- Create chapters table
 CREATE TABLE chapters (
     id SERIAL PRIMARY KEY,
@@ -56,6 +61,7 @@ CREATE TABLE areas (
     description TEXT,
     chapter_id INT NOT NULL,
     order_number INT NOT NULL,
+    weight NUMERIC(5,2) DEFAULT 1.0,
     FOREIGN KEY (chapter_id) REFERENCES chapters(id) ON DELETE CASCADE
 );
 
@@ -73,7 +79,8 @@ CREATE TABLE responses (
     id SERIAL PRIMARY KEY,
     assessment_id INT NOT NULL,
     requirement_id INT NOT NULL,
-    value VARCHAR(50) NOT NULL,
+    -- Answer code: 0 blank, 1 TAK, 2 NIE, 3 W REALIZACJI, 4 ND (backend enum ResponseValue)
+    value SMALLINT NOT NULL,
     comment TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -87,7 +94,8 @@ CREATE TABLE area_scores (
     id SERIAL PRIMARY KEY,
     assessment_id INT NOT NULL,
     area_id INT NOT NULL,
-    score VARCHAR(50) NOT NULL,
+    -- Score code: 0 blank, 1 POZYTYWNA, 2 W REALIZACJI, 3 ZASTRZEŻENIA, 4 NEGATYWNA, 5 NIE DOTYCZY (backend enum AreaScoreValue)
+    score SMALLINT NOT NULL,
     comment TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -96,6 +104,63 @@ CREATE TABLE area_scores (
     UNIQUE (assessment_id, area_id)
 );
 
+-- Dashboard aggregates, maintained by the backend together with every assessment write
+CREATE TABLE dashboard_status_counts (
+    user_id INT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    assessment_count BIGINT NOT NULL,
+    answered_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, status)
+);
+
+CREATE TABLE dashboard_area_score_counts (
+    user_id INT NOT NULL,
+    area_id INT NOT NULL,
+    score SMALLINT NOT NULL,
+    assessment_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, area_id, score)
+);
+
+-- Append-only change history; kept after an assessment is deleted
+CREATE TABLE assessment_events (
+    id BIGSERIAL PRIMARY KEY,
+    assessment_id INT NOT NULL,
+    user_id INT,
+    event_type VARCHAR(20) NOT NULL,
+    item_id INT,
+    old_value VARCHAR(50),
+    new_value VARCHAR(50),
+    old_comment TEXT,
+    new_comment TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_assessment_events_assessment ON assessment_events (assessment_id, id);
+
+-- Assessment versions: a full BASE every few versions, DELTA rows with only the changed items in between
+CREATE TABLE assessment_versions (
+    id BIGSERIAL PRIMARY KEY,
+    assessment_id INT NOT NULL,
+    version INT NOT NULL,
+    base_version INT NOT NULL,
+    kind VARCHAR(10) NOT NULL,
+    status VARCHAR(50),
+    user_id INT,
+    change_count INT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (assessment_id) REFERENCES assessments(id) ON DELETE CASCADE,
+    UNIQUE (assessment_id, version)
+);
+
+-- Last refresh of each analytics materialized view. The views themselves (analytics_requirement_stats,
+-- analytics_requirement_trend) are created and refreshed by the backend.
+CREATE TABLE analytics_refreshes (
+    view_name VARCHAR(63) PRIMARY KEY,
+    refreshed_at TIMESTAMP NOT NULL,
+    duration_ms BIGINT NOT NULL
+);
+
 -- Insert default roles
 INSERT INTO roles (name) VALUES ('ROLE_USER');
 INSERT INTO roles (name) VALUES ('ROLE_ADMIN');
@@ -161,6 +226,12 @@ INSERT INTO areas (name, description, chapter_id, order_number) VALUES
 ('Standardowe klauzule umowne', 'Ocena zgodności z wymogami dotyczącymi standardowych klauzul umownych', 6, 3),
 ('Wiążące reguły korporacyjne', 'Ocena zgodności z wymogami dotyczącymi wiążących reguł korporacyjnych', 6, 4);
 
+-- Area weights used by the risk score (same weighting as the risk view in the frontend)
+UPDATE areas SET weight = 1.5 WHERE chapter_id = 1;
+UPDATE areas SET weight = 1.2 WHERE chapter_id = 3;
+UPDATE areas SET weight = 1.3 WHERE chapter_id = 4;
+UPDATE areas SET weight = 1.8 WHERE chapter_id = 5;
+
 -- Insert requirements for area 1.1: Zgodność z prawem
 INSERT INTO requirements (text, area_id, order_number) VALUES 
 ('Czy przetwarzanie danych osobowych odbywa się na podstawie co najmniej jednej z podstaw prawnych określonych w art. 6 RODO?', 1, 1),
@@ -378,12 +449,12 @@ INSERT INTO assessments (name, description, status, user_id) VALUES
 
 -- Insert example responses
 INSERT INTO responses (assessment_id, requirement_id, value, comment) VALUES 
-(1, 1, 'TAK', 'Przetwarzanie odbywa się na podstawie zgody i umowy'),
-(1, 2, 'NIE', 'Nie przetwarzamy szczególnych kategorii danych'),
-(1, 3, 'NIE', 'Nie przetwarzamy danych dotyczących wyroków skazujących');
+(1, 1, 1, 'Przetwarzanie odbywa się na podstawie zgody i umowy'),
+(1, 2, 2, 'Nie przetwarzamy szczególnych kategorii danych'),
+(1, 3, 2, 'Nie przetwarzamy danych dotyczących wyroków skazujących');
 
 -- Insert example area scores
 INSERT INTO area_scores (assessment_id, area_id, score, comment) VALUES 
-(1, 1, 'ZGODNY', 'Organizacja jest zgodna z zasadą zgodności z prawem'),
-(1, 2, 'CZĘŚCIOWO_ZGODNY', 'Organizacja jest częściowo zgodna z zasadą rzetelności i przejrzystości'),
-(1, 3, 'NIEZGODNY', 'Organizacja nie jest zgodna z zasadą minimalizacji danych');
+(1, 1, 1, 'Organizacja jest zgodna z zasadą zgodności z prawem'),
+(1, 2, 3, 'Organizacja jest częściowo zgodna z zasadą rzetelności i przejrzystości'),
+(1, 3, 4, 'Organizacja nie jest zgodna z zasadą minimalizacji danych');
@@ -0,0 +1,62 @@
+-- Stores responses.value, area_scores.score and dashboard_area_score_counts.score as SMALLINT codes
+-- instead of their labels. The codes are defined by the backend enums ResponseValue and AreaScoreValue;
+-- the API keeps sending and returning the labels.
+--
+-- Run once, with the backend stopped, before starting a backend version that expects the codes:
+--   psql -U postgres -d gdpr_assessment -v ON_ERROR_STOP=1 -f database/migrations/001_value_codes.sql
+-- Each ALTER rewrites its table under an exclusive lock. Running the script again does nothing.
+
+BEGIN;
+
+DO $$
+DECLARE
+    unknown TEXT;
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'responses' AND column_name = 'value') = 'smallint' THEN
+        RAISE NOTICE 'Values are already stored as codes, nothing to do';
+        RETURN;
+    END IF;
+
+    -- Labels used by the sample assessment of earlier init.sql versions
+    UPDATE area_scores SET score = 'POZYTYWNA' WHERE score = 'ZGODNY';
+    UPDATE area_scores SET score = 'ZASTRZEŻENIA' WHERE score = 'CZĘŚCIOWO_ZGODNY';
+    UPDATE area_scores SET score = 'NEGATYWNA' WHERE score = 'NIEZGODNY';
+
+    -- Anything else has no code; stop so it can be mapped by hand instead of being lost
+    SELECT string_agg(DISTINCT quote_literal(value), ', ') INTO unknown FROM responses
+    WHERE value NOT IN ('', 'TAK', 'NIE', 'W REALIZACJI', 'ND');
+    IF unknown IS NOT NULL THEN
+        RAISE EXCEPTION 'Unknown response values: %', unknown;
+    END IF;
+    SELECT string_agg(DISTINCT quote_literal(score), ', ') INTO unknown FROM area_scores
+    WHERE score NOT IN ('', 'POZYTYWNA', 'W REALIZACJI', 'ZASTRZEŻENIA', 'NEGATYWNA', 'NIE DOTYCZY');
+    IF unknown IS NOT NULL THEN
+        RAISE EXCEPTION 'Unknown area scores: %', unknown;
+    END IF;
+
+    ALTER TABLE responses ALTER COLUMN value TYPE SMALLINT USING CASE value
+        WHEN '' THEN 0
+        WHEN 'TAK' THEN 1
+        WHEN 'NIE' THEN 2
+        WHEN 'W REALIZACJI' THEN 3
+        WHEN 'ND' THEN 4
+    END;
+
+    ALTER TABLE area_scores ALTER COLUMN score TYPE SMALLINT USING CASE score
+        WHEN '' THEN 0
+        WHEN 'POZYTYWNA' THEN 1
+        WHEN 'W REALIZACJI' THEN 2
+        WHEN 'ZASTRZEŻENIA' THEN 3
+        WHEN 'NEGATYWNA' THEN 4
+        WHEN 'NIE DOTYCZY' THEN 5
+    END;
+
+    -- The dashboard aggregates are derived data; the backend rebuilds them on startup when they are empty
+    DELETE FROM dashboard_status_counts;
+    DELETE FROM dashboard_area_score_counts;
+    ALTER TABLE dashboard_area_score_counts ALTER COLUMN score TYPE SMALLINT USING 0;
+END
+$$;
+
+COMMIT;